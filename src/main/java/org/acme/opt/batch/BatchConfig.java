@@ -0,0 +1,60 @@
+package org.acme.opt.batch;
+
+import org.acme.opt.models.SolverStrategy;
+import org.acme.opt.models.enums.AllocationEngine;
+import org.acme.opt.models.enums.GreedyOrder;
+import org.acme.opt.models.enums.GreedyStrategy;
+import org.acme.opt.offheap.CsvProblemReader;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of a batch run, from {@code key=value} command line arguments, e.g.
+ * {@code resources=resources.csv projects=projects.csv requirements=requirements.csv engine=GREEDY output=out}.
+ *
+ * @param snapshot also write problem and result as a snapshot, for SnapshotReplayEntrypoint; null when not asked for
+ */
+public record BatchConfig(Path resources, Path projects, Path requirements, AllocationEngine engine,
+                          SolverStrategy strategy, Path output, int chunkBytes, Path snapshot) {
+
+    public static final String USAGE = "Usage: resources=<csv> projects=<csv> requirements=<csv> [engine=GREEDY]"
+            + " [criteria=PROJECT_SIZE] [order=LARGEST_FIRST] [output=batch-output] [chunkMb=64] [snapshot=<file>]";
+
+    public static BatchConfig fromArgs(String[] args) {
+        Path resources = null;
+        Path projects = null;
+        Path requirements = null;
+        AllocationEngine engine = AllocationEngine.GREEDY;
+        GreedyStrategy criteria = GreedyStrategy.PROJECT_SIZE;
+        GreedyOrder order = GreedyOrder.LARGEST_FIRST;
+        Path output = Path.of("batch-output");
+        int chunkBytes = CsvProblemReader.DEFAULT_CHUNK_BYTES;
+        Path snapshot = null;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            String key = arg.substring(0, eq).trim();
+            String value = arg.substring(eq + 1).trim();
+            switch (key) {
+                case "resources" -> resources = Path.of(value);
+                case "projects" -> projects = Path.of(value);
+                case "requirements" -> requirements = Path.of(value);
+                case "engine" -> engine = AllocationEngine.valueOf(value.toUpperCase());
+                case "criteria" -> criteria = GreedyStrategy.valueOf(value.toUpperCase());
+                case "order" -> order = GreedyOrder.valueOf(value.toUpperCase());
+                case "output" -> output = Path.of(value);
+                // Mapped chunks are at most 2 GB, with room for the line that straddles the end of a chunk
+                case "chunkMb" -> chunkBytes = Math.multiplyExact(Math.min(Integer.parseInt(value), 1024), 1024 * 1024);
+                case "snapshot" -> snapshot = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+        if (resources == null || projects == null || requirements == null) {
+            throw new IllegalArgumentException("The resources, projects and requirements files are required");
+        }
+        return new BatchConfig(resources, projects, requirements, engine, new SolverStrategy(criteria, order), output,
+                chunkBytes, snapshot);
+    }
+}
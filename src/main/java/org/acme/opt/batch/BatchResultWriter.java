@@ -0,0 +1,94 @@
+package org.acme.opt.batch;
+
+import org.acme.opt.offheap.OffHeapAllocation;
+import org.acme.opt.offheap.OffHeapProblem;
+import org.acme.opt.stats.OffHeapAllocationStats;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Writes the result of a batch run to a directory:
+ * <pre>
+ *   allocations.csv  project_id,resource_id,allocated   (allocated requirements only)
+ *   completion.csv   project_id,completion
+ *   resources.csv    resource_id,capacity,used,available
+ *   stats.txt        global stats
+ * </pre>
+ * Rows are formatted in blocks on all cores and the blocks are written in order, so only a window of formatted blocks
+ * is on the heap at any time.
+ */
+public class BatchResultWriter {
+    private static final int BLOCK = 4096;
+    private static final int WINDOW = 4 * Runtime.getRuntime().availableProcessors();
+
+    @FunctionalInterface
+    private interface RowFormatter {
+        void format(int index, StringBuilder out);
+    }
+
+    private final OffHeapProblem problem;
+    private final OffHeapAllocation allocation;
+    private final OffHeapAllocationStats stats;
+
+    public BatchResultWriter(OffHeapProblem problem, OffHeapAllocation allocation) {
+        this.problem = problem;
+        this.allocation = allocation;
+        this.stats = new OffHeapAllocationStats(problem, allocation);
+    }
+
+    public OffHeapAllocationStats getStats() {
+        return stats;
+    }
+
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        writeRows(directory.resolve("allocations.csv"), "project_id,resource_id,allocated", problem.numProjects(),
+                (p, out) -> {
+                    for (int k = problem.rowStart(p), end = problem.rowEnd(p); k < end; k++) {
+                        if (allocation.allocated(k) > 0) {
+                            out.append(problem.projectId(p)).append(',').append(problem.resourceId(problem.column(k)))
+                                    .append(',').append(allocation.allocated(k)).append('\n');
+                        }
+                    }
+                });
+        writeRows(directory.resolve("completion.csv"), "project_id,completion", problem.numProjects(),
+                (p, out) -> out.append(problem.projectId(p)).append(',').append(allocation.completion(p)).append('\n'));
+        writeRows(directory.resolve("resources.csv"), "resource_id,capacity,used,available", problem.numResources(),
+                (r, out) -> out.append(problem.resourceId(r)).append(',').append(problem.capacity(r))
+                        .append(',').append(stats.used(r)).append(',').append(problem.capacity(r) - stats.used(r))
+                        .append('\n'));
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve("stats.txt")), false,
+                StandardCharsets.UTF_8)) {
+            stats.printGlobalStats(out);
+        }
+    }
+
+    private static void writeRows(Path file, String header, int count, RowFormatter formatter) throws IOException {
+        int blocks = (count + BLOCK - 1) / BLOCK;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            out.write((header + "\n").getBytes(StandardCharsets.UTF_8));
+            for (int first = 0; first < blocks; first += WINDOW) {
+                List<byte[]> formatted = IntStream.range(first, Math.min(blocks, first + WINDOW)).parallel()
+                        .mapToObj(block -> {
+                            StringBuilder rows = new StringBuilder();
+                            for (int i = block * BLOCK, end = Math.min(count, i + BLOCK); i < end; i++) {
+                                formatter.format(i, rows);
+                            }
+                            return rows.toString().getBytes(StandardCharsets.UTF_8);
+                        })
+                        .toList();
+                for (byte[] rows : formatted) {
+                    out.write(rows);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.acme.opt.distributed;
+
+import io.quarkus.logging.Log;
+import org.acme.opt.models.SolveOptions;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.SolverStrategy;
+import org.acme.opt.models.enums.AllocationEngine;
+import org.acme.opt.models.enums.GreedyOrder;
+import org.acme.opt.models.enums.GreedyStrategy;
+import org.acme.opt.solvers.BaseSolver;
+import org.acme.opt.solvers.GreedyAssignmentSolver;
+import resourceallocation.*;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Coordinator side: partitions the problem (see {@link Partitioner}), solves every partition on the worker pool and
+ * merges the per-project allocations back into one result over the original projects.
+ * <p>
+ * The greedy order is decided here, on the whole projects, and the partitions keep it (they are sent with an
+ * unknown strategy), so a partitioned greedy allocates exactly what a single instance would.
+ */
+public class DistributedSolver implements BaseSolver {
+    private final List<SolverResource> resources;
+    private final List<SolverProject> projects;
+    private final AllocationEngine engine;
+    private final SolveOptions options;
+    private final WorkerPool workerPool;
+
+    public DistributedSolver(List<SolverResource> resources, List<SolverProject> projects, AllocationEngine engine,
+                             SolveOptions options, WorkerPool workerPool) {
+        this.resources = resources;
+        this.projects = projects;
+        this.engine = engine;
+        this.options = options;
+        this.workerPool = workerPool;
+    }
+
+    @Override
+    public Map<SolverProject, List<SolverResource>> solve() {
+        long start = System.currentTimeMillis();
+        boolean greedy = engine == AllocationEngine.GREEDY;
+        List<SolverProject> ordered = greedy
+                ? projects.stream().sorted(GreedyAssignmentSolver.projectOrder(options.strategy())).toList()
+                : projects;
+        // Local search, project selection and fair share weigh all resources of a project together
+        Partitioner.Granularity granularity = engine == AllocationEngine.LINEAR_PROGRAMMING
+                || engine == AllocationEngine.MIN_COST_FLOW
+                || engine == AllocationEngine.LEXICOGRAPHIC
+                || greedy && options.improvementTimeLimitMs() <= 0
+                ? Partitioner.Granularity.RESOURCES : Partitioner.Granularity.COMPONENTS;
+        List<Partitioner.Partition> partitions = Partitioner.partition(resources, ordered,
+                Math.max(1, workerPool.size()), granularity, options.substitutionGroups());
+
+        AllocationStrategy strategy = (greedy ? new SolverStrategy(GreedyStrategy.UNKNOWN, GreedyOrder.UNKNOWN) : options.strategy())
+                .toProto().toBuilder()
+                .setImprovementTimeLimitMs(options.improvementTimeLimitMs())
+                .build();
+        String requestId = UUID.randomUUID().toString();
+        List<CompletableFuture<PartitionResponse>> futures = partitions.stream()
+                .map(p -> workerPool.submit(toRequest(requestId, p, strategy)))
+                .toList();
+
+        // Sum the allocations of every piece of a project
+        Map<Integer, Map<String, Integer>> amounts = new TreeMap<>();
+        for (CompletableFuture<PartitionResponse> future : futures) {
+            for (ProjectAllocation allocation : future.join().getAllocationsList()) {
+                Map<String, Integer> projectAmounts = amounts.computeIfAbsent(Integer.parseInt(allocation.getProjectId()), i -> new TreeMap<>());
+                allocation.getResourceAllocationsList().forEach(r -> projectAmounts.merge(r.getResourceId(), r.getAllocatedQuantity(), Integer::sum));
+            }
+        }
+
+        Map<String, SolverResource> resourcesById = new HashMap<>();
+        resources.forEach(r -> resourcesById.putIfAbsent(r.getId(), r));
+        Map<SolverProject, List<SolverResource>> allocation = new HashMap<>();
+        amounts.forEach((index, projectAmounts) -> {
+            SolverProject project = ordered.get(index);
+            List<SolverResource> assigned = new ArrayList<>();
+            projectAmounts.forEach((id, amount) -> {
+                SolverResource resource = resourcesById.get(id);
+                assigned.add(new SolverResource(id, resource == null ? id : resource.getName(), amount,
+                        resource == null ? 0 : resource.getCost()));
+            });
+            project.setCompletionRate(String.valueOf(calculateProjectCompletion(project, assigned)));
+            allocation.put(project, assigned);
+        });
+        Log.debugf("Distributed %s solve: %d partitions (%s) on %d workers in %d ms", engine, partitions.size(),
+                granularity, workerPool.size(), System.currentTimeMillis() - start);
+        return allocation;
+    }
+
+    private PartitionRequest toRequest(String requestId, Partitioner.Partition partition, AllocationStrategy strategy) {
+        PartitionRequest.Builder request = PartitionRequest.newBuilder()
+                .setPartitionId(requestId + "/" + partition.index())
+                .setEngine(engine.toProto())
+                .setStrategy(strategy)
+                .setMinCompletion(options.minCompletion());
+        options.substitutionGroups().forEach((id, members) -> request.addSubstitutionGroups(
+                SubstitutionGroup.newBuilder().setId(id).addAllResourceIds(members)));
+        partition.resources().forEach(r -> request.addResources(Resource.newBuilder()
+                .setId(r.getId()).setName(r.getName()).setCapacity(r.getAvailableCapacity()).setCost(r.getCost())));
+        partition.projects().forEach(p -> request.addProjects(Project.newBuilder()
+                .setId(p.getId()).setName(p.getName()).putAllRequirements(p.getRequirements()).setPriority(p.getPriority())));
+        return request.build();
+    }
+}
@@ -0,0 +1,48 @@
+package org.acme.opt.distributed;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.opt.mappers.AllocationResponseMapper;
+import org.acme.opt.models.SolveOptions;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.SolverStrategy;
+import org.acme.opt.models.enums.AllocationEngine;
+import org.acme.opt.services.SolverFactory;
+import resourceallocation.*;
+
+import java.util.List;
+import java.util.Map;
+
+// Worker side of the coordinator mode; the coordinator also runs it in-process when no worker answers.
+@ApplicationScoped
+public class PartitionExecutor {
+
+    @Inject
+    SolverFactory solverFactory;
+
+    public PartitionResponse solve(PartitionRequest request) {
+        List<SolverResource> resources = request.getResourcesList().stream()
+                .map(r -> new SolverResource(r.getId(), r.getName(), r.getCapacity(), (int) r.getCost()))
+                .toList();
+        List<SolverProject> projects = request.getProjectsList().stream()
+                .map(p -> new SolverProject("", p.getId(), p.getName(), p.getRequirementsMap(), p.getPriority()))
+                .toList();
+        SolveOptions options = new SolveOptions(SolverStrategy.fromProto(request.getStrategy()),
+                request.getStrategy().getImprovementTimeLimitMs(), request.getMinCompletion(),
+                SolveOptions.substitutionGroups(request.getSubstitutionGroupsList()));
+
+        long start = System.currentTimeMillis();
+        Map<SolverProject, List<SolverResource>> result = solverFactory
+                .create(AllocationEngine.fromProto(request.getEngine()), resources, projects, options)
+                .solve();
+        Log.debugf("Partition %s solved: %d projects, %d resources in %d ms", request.getPartitionId(),
+                projects.size(), resources.size(), System.currentTimeMillis() - start);
+
+        PartitionResponse.Builder response = PartitionResponse.newBuilder().setPartitionId(request.getPartitionId());
+        AllocationResponseMapper mapper = new AllocationResponseMapper();
+        result.forEach((project, assigned) -> response.addAllocations(mapper.buildProjectAllocation(project, assigned)));
+        return response.build();
+    }
+}
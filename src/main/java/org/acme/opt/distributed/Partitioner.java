@@ -0,0 +1,146 @@
+package org.acme.opt.distributed;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Splits a problem into at most {@code count} sub-problems of similar size (number of requirement entries) that can
+ * be solved independently and merged by summing the per-project allocations.
+ * <ul>
+ *     <li>{@link Granularity#RESOURCES}: resource blocks. Exact for the greedy (given a fixed project order), the LP
+ *     and the min-cost flow, which only couple projects through the capacity of each resource; a project is split
+ *     across the blocks its requirements fall into.</li>
+ *     <li>{@link Granularity#COMPONENTS}: groups of connected components of the project/resource graph, so every
+ *     project stays whole. Required by the engines that couple the resources of a project (local search, project
+ *     selection).</li>
+ * </ul>
+ * Linked resources (substitution groups, whose requirements may be served by any member) always share a partition.
+ * Projects in a partition are renamed to their index in {@code projects}, which is how the merge finds them back,
+ * and keep the original order.
+ */
+public final class Partitioner {
+    public enum Granularity { RESOURCES, COMPONENTS }
+
+    public record Partition(int index, List<SolverResource> resources, List<SolverProject> projects) {
+    }
+
+    private Partitioner() {
+    }
+
+    public static List<Partition> partition(List<SolverResource> resources, List<SolverProject> projects,
+                                            int count, Granularity granularity) {
+        return partition(resources, projects, count, granularity, Map.of());
+    }
+
+    /**
+     * @param linked resource ids that must stay together, by group id; a requirement on the group id stays with them
+     */
+    public static List<Partition> partition(List<SolverResource> resources, List<SolverProject> projects,
+                                            int count, Granularity granularity, Map<String, Set<String>> linked) {
+        // Every resource id, known or only required, is a node
+        Map<String, Integer> node = new HashMap<>();
+        resources.forEach(r -> node.putIfAbsent(r.getId(), node.size()));
+        projects.forEach(p -> p.getRequirements().keySet().forEach(id -> node.putIfAbsent(id, node.size())));
+
+        int[] unit = new int[node.size()];
+        Arrays.setAll(unit, i -> i);
+        if (granularity == Granularity.COMPONENTS) {
+            for (SolverProject project : projects) {
+                Integer first = null;
+                for (String id : project.getRequirements().keySet()) {
+                    int n = node.get(id);
+                    if (first == null) {
+                        first = n;
+                    } else {
+                        union(unit, first, n);
+                    }
+                }
+            }
+        }
+        for (Map.Entry<String, Set<String>> group : linked.entrySet()) {
+            Integer first = node.get(group.getKey());
+            for (String id : group.getValue()) {
+                Integer n = node.get(id);
+                if (n == null) {
+                    continue;
+                }
+                if (first == null) {
+                    first = n;
+                } else {
+                    union(unit, first, n);
+                }
+            }
+        }
+        for (int i = 0; i < unit.length; i++) {
+            unit[i] = find(unit, i);
+        }
+
+        long[] weight = new long[unit.length];
+        resources.forEach(r -> weight[unit[node.get(r.getId())]]++);
+        projects.forEach(p -> p.getRequirements().keySet().forEach(id -> weight[unit[node.get(id)]]++));
+
+        // Longest processing time first: heaviest unit to the lightest partition
+        int partitions = Math.max(1, Math.min(count, unit.length));
+        Integer[] units = IntStream.range(0, unit.length).filter(i -> unit[i] == i).boxed().toArray(Integer[]::new);
+        Arrays.sort(units, Comparator.comparingLong((Integer u) -> weight[u]).reversed().thenComparing(u -> u));
+        long[] load = new long[partitions];
+        int[] partitionOf = new int[unit.length];
+        for (int u : units) {
+            int lightest = 0;
+            for (int p = 1; p < partitions; p++) {
+                if (load[p] < load[lightest]) {
+                    lightest = p;
+                }
+            }
+            partitionOf[u] = lightest;
+            load[lightest] += weight[u];
+        }
+
+        List<List<SolverResource>> partResources = new ArrayList<>();
+        List<List<SolverProject>> partProjects = new ArrayList<>();
+        for (int p = 0; p < partitions; p++) {
+            partResources.add(new ArrayList<>());
+            partProjects.add(new ArrayList<>());
+        }
+        for (SolverResource resource : resources) {
+            partResources.get(partitionOf[unit[node.get(resource.getId())]]).add(resource);
+        }
+        for (int i = 0; i < projects.size(); i++) {
+            SolverProject project = projects.get(i);
+            Map<Integer, Map<String, Integer>> split = new TreeMap<>();
+            project.getRequirements().forEach((id, amount) ->
+                    split.computeIfAbsent(partitionOf[unit[node.get(id)]], p -> new HashMap<>()).put(id, amount));
+            for (Map.Entry<Integer, Map<String, Integer>> part : split.entrySet()) {
+                partProjects.get(part.getKey()).add(new SolverProject("", String.valueOf(i), project.getId(),
+                        part.getValue(), project.getPriority()));
+            }
+        }
+
+        List<Partition> result = new ArrayList<>();
+        for (int p = 0; p < partitions; p++) {
+            if (!partResources.get(p).isEmpty() || !partProjects.get(p).isEmpty()) {
+                result.add(new Partition(result.size(), partResources.get(p), partProjects.get(p)));
+            }
+        }
+        return result;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int ra = find(parent, a);
+        int rb = find(parent, b);
+        if (ra != rb) {
+            parent[Math.max(ra, rb)] = Math.min(ra, rb);
+        }
+    }
+}
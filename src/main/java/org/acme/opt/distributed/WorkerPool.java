@@ -0,0 +1,100 @@
+package org.acme.opt.distributed;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.StatusRuntimeException;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import resourceallocation.PartitionRequest;
+import resourceallocation.PartitionResponse;
+import resourceallocation.ResourceAllocationServiceGrpc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * gRPC channels to the worker instances listed in {@code allocation.coordinator.workers} ({@code host:port,...}).
+ * Partitions go round-robin; a partition whose worker fails or times out is retried on the next worker, up to
+ * {@code allocation.coordinator.max-attempts} times, and then solved in-process.
+ */
+@ApplicationScoped
+public class WorkerPool {
+
+    @ConfigProperty(name = "allocation.coordinator.workers")
+    Optional<List<String>> workers;
+
+    @ConfigProperty(name = "allocation.coordinator.max-attempts", defaultValue = "3")
+    int maxAttempts;
+
+    @ConfigProperty(name = "allocation.coordinator.deadline-ms", defaultValue = "60000")
+    long deadlineMillis;
+
+    @Inject
+    PartitionExecutor localExecutor;
+
+    private final List<String> addresses = new ArrayList<>();
+    private final List<ManagedChannel> channels = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    // Calls block until their worker answers, so they get their own threads
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    public synchronized int size() {
+        connect();
+        return channels.size();
+    }
+
+    public CompletableFuture<PartitionResponse> submit(PartitionRequest request) {
+        return CompletableFuture.supplyAsync(() -> solve(request), executor);
+    }
+
+    private PartitionResponse solve(PartitionRequest request) {
+        int workerCount = size();
+        for (int attempt = 1; workerCount > 0 && attempt <= maxAttempts; attempt++) {
+            int worker = Math.floorMod(next.getAndIncrement(), workerCount);
+            try {
+                return ResourceAllocationServiceGrpc.newBlockingStub(channels.get(worker))
+                        .withDeadlineAfter(deadlineMillis, TimeUnit.MILLISECONDS)
+                        .solvePartition(request);
+            } catch (StatusRuntimeException e) {
+                System.err.printf("Partition %s failed on worker %s (attempt %d/%d): %s%n", request.getPartitionId(),
+                        addresses.get(worker), attempt, maxAttempts, e.getStatus());
+            }
+        }
+        if (workerCount > 0) {
+            System.err.printf("Partition %s: no worker answered, solving it locally%n", request.getPartitionId());
+        }
+        return localExecutor.solve(request);
+    }
+
+    private void connect() {
+        if (!channels.isEmpty() || workers.isEmpty()) {
+            return;
+        }
+        for (String worker : workers.get()) {
+            String address = worker.trim();
+            int colon = address.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Worker address must be host:port, got '" + address + "'");
+            }
+            addresses.add(address);
+            channels.add(ManagedChannelBuilder.forAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)))
+                    .usePlaintext()
+                    .maxInboundMessageSize(Integer.MAX_VALUE)
+                    .build());
+        }
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        channels.forEach(ManagedChannel::shutdownNow);
+        executor.shutdownNow();
+    }
+}
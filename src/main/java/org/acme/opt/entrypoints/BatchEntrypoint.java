@@ -0,0 +1,53 @@
+package org.acme.opt.entrypoints;
+
+import org.acme.opt.batch.BatchConfig;
+import org.acme.opt.batch.BatchResultWriter;
+import org.acme.opt.offheap.CsvProblemReader;
+import org.acme.opt.offheap.OffHeapAllocation;
+import org.acme.opt.offheap.OffHeapProblem;
+import org.acme.opt.snapshot.SnapshotWriter;
+import org.acme.opt.solvers.OffHeapEngines;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Solves a problem read from CSV files without the service and writes the result to a directory, see
+ * {@link BatchConfig} for the options and {@link CsvProblemReader} for the input format. The problem and the result
+ * stay off the heap with the greedy: the allocation is solved straight into {@code allocation.bin}, a mapped file.
+ */
+public class BatchEntrypoint {
+    public static void main(String[] args) throws IOException {
+        BatchConfig config;
+        try {
+            config = BatchConfig.fromArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(BatchConfig.USAGE);
+            System.exit(1);
+            return;
+        }
+
+        long start = System.nanoTime();
+        OffHeapProblem problem = new CsvProblemReader(config.chunkBytes())
+                .read(config.resources(), config.projects(), config.requirements());
+        System.out.printf("Read in %.2f ms%n", (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        Files.createDirectories(config.output());
+        OffHeapAllocation allocation = OffHeapEngines.solve(config.engine(), config.strategy(), problem,
+                OffHeapAllocation.create(problem, config.output().resolve("allocation.bin")));
+        System.out.printf("Solved with %s in %.2f ms%n", config.engine(), (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        BatchResultWriter writer = new BatchResultWriter(problem, allocation);
+        writer.write(config.output());
+        writer.getStats().printGlobalStats();
+        System.out.printf("Results written to %s in %.2f ms%n", config.output(), (System.nanoTime() - start) / 1e6);
+
+        if (config.snapshot() != null) {
+            new SnapshotWriter(config.engine(), config.strategy()).write(config.snapshot(), problem, allocation);
+            System.out.println("Snapshot written to " + config.snapshot());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.acme.opt.entrypoints;
+
+import org.acme.opt.loadtest.LoadGenerator;
+import org.acme.opt.loadtest.LoadTestConfig;
+import org.acme.opt.loadtest.ScenarioPool;
+
+import java.nio.file.Path;
+
+/**
+ * Drives a running service over gRPC, see {@link LoadTestConfig} for the options, e.g.
+ * {@code port=8082 rate=50 duration=120 mix=GREEDY:0.9,LINEAR_PROGRAMMING:0.1 sizes=100x50,800x1000 output=report.txt}.
+ */
+public class LoadTestEntrypoint {
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+        System.out.println("Generating scenarios: " + config);
+        ScenarioPool pool = new ScenarioPool(config);
+
+        System.out.printf("Running %ds warmup + %ds measurement against %s:%d%n",
+                config.warmupSeconds(), config.durationSeconds(), config.host(), config.port());
+        LoadGenerator generator = new LoadGenerator(config, pool);
+        generator.run();
+
+        generator.printReport(System.out);
+        generator.writeReport(Path.of(config.output()));
+        System.out.println("Report written to " + config.output());
+    }
+}
@@ -0,0 +1,105 @@
+package org.acme.opt.entrypoints;
+
+import org.acme.opt.generators.ProjectGenerator;
+import org.acme.opt.generators.ResourceGenerator;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.SolverStrategy;
+import org.acme.opt.models.enums.AllocationEngine;
+import org.acme.opt.models.enums.GreedyOrder;
+import org.acme.opt.models.enums.GreedyStrategy;
+import org.acme.opt.offheap.OffHeapAllocation;
+import org.acme.opt.offheap.OffHeapProblem;
+import org.acme.opt.snapshot.Snapshot;
+import org.acme.opt.snapshot.SnapshotWriter;
+import org.acme.opt.solvers.OffHeapEngines;
+import org.acme.opt.stats.OffHeapAllocationStats;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Saves generated scenarios as snapshots and replays saved (or captured) snapshots against the solvers.
+ * <pre>
+ *   generate &lt;file&gt; [projects] [resources] [profile] [engine]
+ *   replay &lt;file&gt; [result-file]
+ * </pre>
+ */
+public class SnapshotReplayEntrypoint {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: generate <file> [projects] [resources] [profile] [engine] | replay <file> [result-file]");
+            System.exit(1);
+        }
+
+        switch (args[0]) {
+            case "generate" -> generate(args);
+            case "replay" -> replay(Path.of(args[1]), args.length > 2 ? Path.of(args[2]) : null);
+            default -> {
+                System.err.println("Unknown command: " + args[0]);
+                System.exit(1);
+            }
+        }
+    }
+
+    private static void generate(String[] args) throws IOException {
+        int numProjects = args.length > 2 ? Integer.parseInt(args[2]) : 800;
+        int numResources = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+        ProjectGenerator.RequirementProfile profile = args.length > 4
+                ? ProjectGenerator.RequirementProfile.valueOf(args[4])
+                : ProjectGenerator.RequirementProfile.BALANCED;
+        AllocationEngine engine = args.length > 5 ? AllocationEngine.valueOf(args[5]) : AllocationEngine.GREEDY;
+
+        ResourceGenerator resourceGen = new ResourceGenerator.Builder()
+                .numResources(numResources)
+                .minCapacity(70)
+                .distribution(ResourceGenerator.CapacityDistribution.NORMAL)
+                .build();
+        List<SolverResource> solverResources = resourceGen.generate();
+
+        ProjectGenerator projectGen = new ProjectGenerator.Builder()
+                .numProjects(numProjects)
+                .resources(solverResources)
+                .profile(profile)
+                .utilizationTarget(100)
+                .build();
+        List<SolverProject> solverProjects = projectGen.generate();
+
+        SolverStrategy strategy = new SolverStrategy(GreedyStrategy.PROJECT_SIZE, GreedyOrder.LARGEST_FIRST);
+        new SnapshotWriter(engine, strategy).write(Path.of(args[1]), solverResources, solverProjects);
+        System.out.printf("Snapshot written to %s (%d projects, %d resources)%n", args[1], numProjects, numResources);
+    }
+
+    private static void replay(Path file, Path resultFile) throws IOException {
+        try (Snapshot snapshot = Snapshot.open(file)) {
+            OffHeapProblem problem = snapshot.problem();
+            System.out.printf("Replaying %s: engine = %s, strategy = %s, %d projects, %d resources, %d requirements%n",
+                    file, snapshot.engine(), snapshot.strategy(), problem.numProjects(), problem.numResources(), problem.nonZeros());
+
+            long start = System.nanoTime();
+            OffHeapAllocation allocation = OffHeapEngines.solve(snapshot.engine(), snapshot.strategy(), problem,
+                    OffHeapAllocation.allocate(problem));
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("Solved in %.2f ms%n", elapsed / 1e6);
+
+            new OffHeapAllocationStats(problem, allocation).printGlobalStats();
+
+            if (snapshot.hasAllocation()) {
+                OffHeapAllocation recorded = snapshot.allocation();
+                int changed = 0;
+                for (int k = 0; k < problem.nonZeros(); k++) {
+                    if (recorded.allocated(k) != allocation.allocated(k)) {
+                        changed++;
+                    }
+                }
+                System.out.printf("Requirements allocated differently than in the recorded result: %d%n", changed);
+            }
+
+            if (resultFile != null) {
+                new SnapshotWriter(snapshot.engine(), snapshot.strategy()).write(resultFile, problem, allocation);
+                System.out.println("Result snapshot written to " + resultFile);
+            }
+        }
+    }
+}
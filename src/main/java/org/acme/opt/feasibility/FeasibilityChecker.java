@@ -0,0 +1,93 @@
+package org.acme.opt.feasibility;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import resourceallocation.*;
+
+import java.util.*;
+
+/**
+ * Answers {@code CheckFeasibility} from a {@link FeasibilityIndex}. The index built for a request is kept under a
+ * basis token, so clients asking repeatedly about the same committed state (a UI checking every keystroke) only send
+ * their candidate projects. Bases are kept in an LRU bounded by {@code allocation.feasibility.max-bases}.
+ */
+@ApplicationScoped
+public class FeasibilityChecker {
+
+    @ConfigProperty(name = "allocation.feasibility.max-bases", defaultValue = "1000")
+    int maxBases;
+
+    private final Map<String, FeasibilityIndex> bases = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FeasibilityIndex> eldest) {
+            return size() > maxBases;
+        }
+    };
+
+    /**
+     * @throws NoSuchElementException when the request only has a basis token and that basis was evicted; the client
+     *                                then sends its resources and committed projects again
+     */
+    public FeasibilityResponse check(FeasibilityRequest request) {
+        long start = System.nanoTime();
+        String token = request.getBasisToken();
+        FeasibilityIndex index;
+        synchronized (bases) {
+            index = token.isEmpty() ? null : bases.get(token);
+        }
+        if (index == null) {
+            if (!token.isEmpty() && request.getResourcesCount() == 0 && request.getCommittedCount() == 0) {
+                throw new NoSuchElementException("Unknown basis " + token);
+            }
+            index = new FeasibilityIndex(request.getResourcesList(), request.getCommittedList());
+            token = UUID.randomUUID().toString();
+            synchronized (bases) {
+                bases.put(token, index);
+            }
+        }
+
+        FeasibilityResponse.Builder response = FeasibilityResponse.newBuilder().setBasisToken(token);
+        Map<String, Long> candidateDemand = new HashMap<>();
+        for (Project candidate : request.getCandidatesList()) {
+            response.addCandidates(candidate(index, candidate));
+            candidate.getRequirementsMap().forEach((id, amount) -> {
+                if (amount > 0) {
+                    candidateDemand.merge(id, (long) amount, Long::sum);
+                }
+            });
+        }
+
+        // Only resources already overloaded or touched by a candidate can be short
+        Set<String> shortResources = new TreeSet<>(index.overloaded());
+        shortResources.addAll(candidateDemand.keySet());
+        for (String id : shortResources) {
+            long demand = index.demand(id) + candidateDemand.getOrDefault(id, 0L);
+            if (demand > index.capacity(id)) {
+                response.addShortfalls(ResourceShortfall.newBuilder()
+                        .setResourceId(id).setCapacity(index.capacity(id)).setDemand(demand));
+            }
+        }
+        return response.setFeasible(response.getShortfallsCount() == 0)
+                .setHandlingNanos(System.nanoTime() - start)
+                .build();
+    }
+
+    // Completion is weighted by requirement size, as in the solvers' completion percentage
+    private static CandidateFeasibility candidate(FeasibilityIndex index, Project project) {
+        CandidateFeasibility.Builder result = CandidateFeasibility.newBuilder().setProjectId(project.getId());
+        double fulfilled = 0;
+        double total = 0;
+        for (Map.Entry<String, Integer> requirement : project.getRequirementsMap().entrySet()) {
+            int required = Math.max(0, requirement.getValue());
+            long available = Math.min(required, index.residual(requirement.getKey()));
+            if (available < required) {
+                result.putMissing(requirement.getKey(), (int) (required - available));
+            }
+            fulfilled += available;
+            total += required;
+        }
+        return result.setSatisfiable(result.getMissingCount() == 0)
+                .setMaxCompletion(total > 0 ? Math.round(fulfilled / total * 100) : 100)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package org.acme.opt.feasibility;
+
+import resourceallocation.Project;
+import resourceallocation.Resource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Capacity and committed demand of every resource, aggregated once so that feasibility questions are answered in
+ * time proportional to the candidate projects only. Since projects only compete through the capacity of each
+ * resource, a set of projects can be fully satisfied exactly when no resource has more demand than capacity, and a
+ * project added on top of the committed ones gets at most the residual capacity of each of its resources.
+ */
+public final class FeasibilityIndex {
+    private final Map<String, Long> capacity = new HashMap<>();
+    private final Map<String, Long> demand = new HashMap<>();
+    // Resources the committed projects alone overload
+    private final List<String> overloaded = new ArrayList<>();
+
+    public FeasibilityIndex(List<Resource> resources, List<Project> committed) {
+        resources.forEach(r -> capacity.merge(r.getId(), (long) Math.max(0, r.getCapacity()), Long::sum));
+        committed.forEach(p -> p.getRequirementsMap().forEach((id, amount) -> {
+            if (amount > 0) {
+                demand.merge(id, (long) amount, Long::sum);
+            }
+        }));
+        demand.forEach((id, amount) -> {
+            if (amount > capacity(id)) {
+                overloaded.add(id);
+            }
+        });
+    }
+
+    public long capacity(String resourceId) {
+        return capacity.getOrDefault(resourceId, 0L);
+    }
+
+    public long demand(String resourceId) {
+        return demand.getOrDefault(resourceId, 0L);
+    }
+
+    public long residual(String resourceId) {
+        return Math.max(0, capacity(resourceId) - demand(resourceId));
+    }
+
+    public List<String> overloaded() {
+        return overloaded;
+    }
+}
@@ -4,6 +4,8 @@ import org.acme.opt.models.SolverProject;
 import org.acme.opt.models.SolverResource;
 
 import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class ProjectGenerator {
     public enum RequirementProfile {
@@ -14,11 +16,19 @@ public class ProjectGenerator {
         SEASONAL          // Requirements follow a pattern across resources
     }
 
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;  // SplittableRandom's default gamma
+
     private final int numProjects;
     private final List<SolverResource> solverResources;
     private final RequirementProfile profile;
     private final double utilizationTarget;  // Target resource utilization (0.0 to 1.0)
     private final Random random;
+    private final long seed;
+
+    // Index-based views of the resources used by the streaming mode
+    private final String[] resourceIds;
+    private final int[] capacities;
+    private final ThreadLocal<int[]> samplingScratch;
 
     private ProjectGenerator(Builder builder) {
         this.numProjects = builder.numProjects;
@@ -26,6 +36,11 @@ public class ProjectGenerator {
         this.profile = builder.profile;
         this.utilizationTarget = builder.utilizationTarget;
         this.random = new Random(builder.seed);
+        this.seed = builder.seed;
+
+        this.resourceIds = solverResources.stream().map(SolverResource::getId).toArray(String[]::new);
+        this.capacities = solverResources.stream().mapToInt(SolverResource::getAvailableCapacity).toArray();
+        this.samplingScratch = ThreadLocal.withInitial(() -> IntStream.range(0, resourceIds.length).toArray());
     }
 
     public List<SolverProject> generate() {
@@ -162,6 +177,122 @@ public class ProjectGenerator {
         }
     }
 
+    /**
+     * Lazy, deterministic and parallel-friendly alternative to {@link #generate()}. Every project draws from its own
+     * {@link SplittableRandom}, so project i is identical whether the stream is consumed sequentially, in parallel
+     * or only partially. Requirements are keyed by resource id. The values differ from {@link #generate()}, which
+     * keeps its single shared {@link Random} for reproducibility of existing scenarios.
+     */
+    public Stream<SolverProject> stream() {
+        return IntStream.range(0, numProjects).mapToObj(this::generateProject);
+    }
+
+    public Iterator<SolverProject> iterator() {
+        return stream().iterator();
+    }
+
+    public List<SolverProject> generateParallel() {
+        return stream().parallel().toList();
+    }
+
+    // Equivalent to calling split() on a root SplittableRandom(seed) once per project (each split consumes two
+    // values of the root sequence), but addressable by index.
+    private SplittableRandom projectRandom(int index) {
+        return new SplittableRandom(seed + 2L * index * GOLDEN_GAMMA).split();
+    }
+
+    private SolverProject generateProject(int i) {
+        SplittableRandom rnd = projectRandom(i);
+        int numResources = resourceIds.length;
+        Map<String, Integer> requirements = new HashMap<>();
+        int priority = i;
+
+        switch (profile) {
+            case BALANCED -> {
+                for (int r = 0; r < numResources; r++) {
+                    int maxReq = (int) (capacities[r] * utilizationTarget / numProjects);
+                    requirements.put(resourceIds[r], maxReq + nextInt(rnd, maxReq / 2));
+                }
+            }
+            case SPARSE -> {
+                int numRequiredResources = Math.max(1, numResources / 5);  // Use 20% of resources
+                int[] sample = sampleWithoutReplacement(rnd, numRequiredResources);
+                for (int r : sample) {
+                    int maxReq = (int) (capacities[r] * utilizationTarget);
+                    requirements.put(resourceIds[r], maxReq + nextInt(rnd, maxReq / 2));
+                }
+            }
+            case COMPLEMENTARY -> {
+                // Groups are contiguous index ranges, so membership is a bounds check instead of List.contains
+                int groupSize = Math.max(1, numResources / numProjects);
+                int numGroups = (numResources + groupSize - 1) / groupSize;
+                int groupStart = (i % numGroups) * groupSize;
+                int groupEnd = Math.min(numResources, groupStart + groupSize);
+                for (int r = 0; r < numResources; r++) {
+                    if (r >= groupStart && r < groupEnd) {
+                        int maxReq = (int) (capacities[r] * utilizationTarget);
+                        requirements.put(resourceIds[r], maxReq + nextInt(rnd, maxReq / 2));
+                    } else {
+                        int maxReq = (int) (capacities[r] * utilizationTarget * 0.2);  // 20% of normal
+                        requirements.put(resourceIds[r], nextInt(rnd, maxReq));
+                    }
+                }
+            }
+            case COMPETITIVE -> {
+                int numContested = Math.max(1, numResources / 3);  // 33% of resources are contested
+                for (int r = 0; r < numResources; r++) {
+                    if (r < numContested) {
+                        int maxReq = (int) (capacities[r] * utilizationTarget);
+                        requirements.put(resourceIds[r], maxReq + nextInt(rnd, maxReq / 2));
+                    } else {
+                        int maxReq = (int) (capacities[r] * utilizationTarget / numProjects);
+                        requirements.put(resourceIds[r], nextInt(rnd, maxReq));
+                    }
+                }
+            }
+            case SEASONAL -> {
+                int seasonLength = Math.max(1, numResources / 4);  // Four seasons
+                for (int r = 0; r < numResources; r++) {
+                    double seasonalFactor = 0.5 + 0.5 * Math.sin(2 * Math.PI * ((r + i) % numResources) / seasonLength);
+                    int maxReq = (int) (capacities[r] * utilizationTarget * seasonalFactor);
+                    requirements.put(resourceIds[r], maxReq + nextInt(rnd, maxReq / 2));
+                }
+                priority = i % 9;
+            }
+        }
+
+        return new SolverProject("", "proj" + i, "Project" + i, requirements, priority);
+    }
+
+    // Partial Fisher-Yates over a per-thread identity permutation; the swaps are undone afterwards so the
+    // scratch array can be reused, which keeps the cost at O(k) instead of shuffling a copy of every resource.
+    private int[] sampleWithoutReplacement(SplittableRandom rnd, int k) {
+        int[] permutation = samplingScratch.get();
+        int n = permutation.length;
+        int[] swaps = new int[k];
+        int[] sample = new int[k];
+        for (int j = 0; j < k; j++) {
+            int other = j + rnd.nextInt(n - j);
+            swaps[j] = other;
+            int tmp = permutation[j];
+            permutation[j] = permutation[other];
+            permutation[other] = tmp;
+            sample[j] = permutation[j];
+        }
+        for (int j = k - 1; j >= 0; j--) {
+            int other = swaps[j];
+            int tmp = permutation[j];
+            permutation[j] = permutation[other];
+            permutation[other] = tmp;
+        }
+        return sample;
+    }
+
+    // nextInt(0) throws; tiny capacities simply get no random spread
+    private static int nextInt(SplittableRandom rnd, int bound) {
+        return bound > 0 ? rnd.nextInt(bound) : 0;
+    }
+
     public static class Builder {
         private int numProjects = 5;
         private List<SolverResource> solverResources = new ArrayList<>();
@@ -0,0 +1,199 @@
+package org.acme.opt.loadtest;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.acme.opt.models.enums.AllocationEngine;
+import resourceallocation.AllocationRequest;
+import resourceallocation.AllocationResponse;
+import resourceallocation.ResourceAllocationServiceGrpc;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the gRPC {@code ResourceAllocationService}.
+ * <p>
+ * Requests are scheduled at fixed or Poisson arrival times regardless of how fast the service answers, and latency
+ * is measured from the scheduled time rather than the actual send time, so a stalled event loop shows up in the
+ * percentiles instead of silently lowering the offered load (coordinated omission). When {@code maxInFlight}
+ * requests are outstanding, new arrivals are counted as rejected instead of being queued on the client.
+ */
+public class LoadGenerator {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final LoadTestConfig config;
+    private final ScenarioPool pool;
+    private final List<ManagedChannel> channels = new ArrayList<>();
+    private final Semaphore inFlight;
+
+    // Latency from scheduled start, and service time from the actual send, per engine
+    private final Map<AllocationEngine, Histogram> latency = new ConcurrentHashMap<>();
+    private final Map<AllocationEngine, Histogram> serviceTime = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public LoadGenerator(LoadTestConfig config, ScenarioPool pool) {
+        this.config = config;
+        this.pool = pool;
+        this.inFlight = new Semaphore(config.maxInFlight());
+        for (int i = 0; i < config.channels(); i++) {
+            channels.add(ManagedChannelBuilder.forAddress(config.host(), config.port())
+                    .usePlaintext()
+                    .maxInboundMessageSize(Integer.MAX_VALUE)
+                    .build());
+        }
+        for (AllocationEngine engine : config.mix().keySet()) {
+            latency.put(engine, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            serviceTime.put(engine, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+        }
+    }
+
+    public void run() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(config.seed());
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+        double meanIntervalNanos = 1e9 / config.rate();
+
+        long scheduled = start;
+        int request = 0;
+        while (scheduled < end) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+            fire(scheduled, scheduled >= measureFrom, random, request++);
+            scheduled += switch (config.arrival()) {
+                case POISSON -> (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+                case UNIFORM -> (long) meanIntervalNanos;
+            };
+        }
+
+        // Drain outstanding requests before reporting
+        if (inFlight.tryAcquire(config.maxInFlight(), config.deadlineMillis(), TimeUnit.MILLISECONDS)) {
+            inFlight.release(config.maxInFlight());
+        }
+        channels.forEach(ManagedChannel::shutdownNow);
+    }
+
+    private void fire(long scheduled, boolean measure, SplittableRandom random, int request) {
+        AllocationEngine engine = pickEngine(random);
+        AllocationRequest allocationRequest = pool.pick(random).request();
+
+        if (!inFlight.tryAcquire()) {
+            if (measure) {
+                rejected.incrementAndGet();
+            }
+            return;
+        }
+        if (measure) {
+            sent.incrementAndGet();
+        }
+
+        long sentAt = System.nanoTime();
+        StreamObserver<AllocationResponse> observer = new StreamObserver<>() {
+            @Override
+            public void onNext(AllocationResponse value) {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                inFlight.release();
+                if (measure) {
+                    failed.incrementAndGet();
+                    errors.computeIfAbsent(Status.fromThrowable(t).getCode().name(), k -> new AtomicLong()).incrementAndGet();
+                }
+            }
+
+            @Override
+            public void onCompleted() {
+                long now = System.nanoTime();
+                inFlight.release();
+                if (measure) {
+                    completed.incrementAndGet();
+                    latency.get(engine).recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (now - scheduled) / 1000));
+                    serviceTime.get(engine).recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (now - sentAt) / 1000));
+                }
+            }
+        };
+
+        var stub = ResourceAllocationServiceGrpc.newStub(channels.get(request % channels.size()))
+                .withDeadlineAfter(config.deadlineMillis(), TimeUnit.MILLISECONDS);
+        switch (engine) {
+            case GREEDY -> stub.allocateResourcesGreedy(allocationRequest, observer);
+            case LINEAR_PROGRAMMING -> stub.allocateResourcesLinearProgramming(allocationRequest, observer);
+            case PROJECT_SELECTION -> stub.allocateProjectSelection(allocationRequest, observer);
+            case FAIR_SHARE -> stub.allocateResourcesFair(allocationRequest, observer);
+            case MIN_COST_FLOW -> stub.allocateResourcesFlow(allocationRequest, observer);
+            case LEXICOGRAPHIC -> stub.allocateResourcesLexicographic(allocationRequest, observer);
+        }
+    }
+
+    private AllocationEngine pickEngine(SplittableRandom random) {
+        double total = config.mix().values().stream().mapToDouble(Double::doubleValue).sum();
+        double pick = random.nextDouble() * total;
+        AllocationEngine last = null;
+        for (Map.Entry<AllocationEngine, Double> entry : config.mix().entrySet()) {
+            last = entry.getKey();
+            pick -= entry.getValue();
+            if (pick < 0) {
+                break;
+            }
+        }
+        return last;
+    }
+
+    public void writeReport(Path file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            printReport(out);
+        }
+    }
+
+    public void printReport(PrintStream out) {
+        out.println("=== LOAD TEST REPORT ===");
+        out.println("Config: " + config);
+        out.println("Scenarios in pool: " + pool.size());
+        out.printf("Sent: %d, Completed: %d, Failed: %d, Rejected (client at maxInFlight): %d%n",
+                sent.get(), completed.get(), failed.get(), rejected.get());
+        out.printf("Offered rate: %.2f req/s, Throughput: %.2f req/s%n",
+                config.rate(), (double) completed.get() / config.durationSeconds());
+        errors.forEach((code, count) -> out.printf("Errors %s: %d%n", code, count.get()));
+
+        for (AllocationEngine engine : config.mix().keySet()) {
+            Histogram total = latency.get(engine);
+            Histogram service = serviceTime.get(engine);
+            out.printf("%n--- %s (%d requests) ---%n", engine, total.getTotalCount());
+            out.println("Latency from scheduled start (ms):");
+            printPercentiles(out, total);
+            out.println("Service time from send (ms):");
+            printPercentiles(out, service);
+            out.println("Latency distribution (ms):");
+            total.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static void printPercentiles(PrintStream out, Histogram histogram) {
+        out.printf("   p50 = %.2f, p90 = %.2f, p99 = %.2f, p99.9 = %.2f, max = %.2f%n",
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+}
@@ -0,0 +1,240 @@
+package org.acme.opt.loadtest;
+
+import org.acme.opt.generators.ProjectGenerator;
+import org.acme.opt.models.enums.AllocationEngine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of a load test run. Built with the {@link Builder} or from {@code key=value} command line arguments,
+ * e.g. {@code rate=50 duration=60 mix=GREEDY:0.8,LINEAR_PROGRAMMING:0.2 sizes=100x50,1000x800 profiles=BALANCED,SPARSE}.
+ */
+public class LoadTestConfig {
+    public enum Arrival {
+        POISSON,    // Exponential inter-arrival times, as independent clients would produce
+        UNIFORM     // Fixed inter-arrival times
+    }
+
+    // A problem size: number of projects x number of resources
+    public record Size(int projects, int resources) {
+        static Size parse(String value) {
+            String[] parts = value.toLowerCase().split("x");
+            return new Size(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+
+        @Override
+        public String toString() {
+            return projects + "x" + resources;
+        }
+    }
+
+    private final String host;
+    private final int port;
+    private final int channels;
+    private final int maxInFlight;
+    private final double rate;
+    private final Arrival arrival;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final long deadlineMillis;
+    private final Map<AllocationEngine, Double> mix;
+    private final List<Size> sizes;
+    private final List<ProjectGenerator.RequirementProfile> profiles;
+    private final double utilizationTarget;
+    private final int variants;
+    private final long seed;
+    private final String output;
+
+    private LoadTestConfig(Builder builder) {
+        this.host = builder.host;
+        this.port = builder.port;
+        this.channels = builder.channels;
+        this.maxInFlight = builder.maxInFlight;
+        this.rate = builder.rate;
+        this.arrival = builder.arrival;
+        this.warmupSeconds = builder.warmupSeconds;
+        this.durationSeconds = builder.durationSeconds;
+        this.deadlineMillis = builder.deadlineMillis;
+        this.mix = builder.mix;
+        this.sizes = builder.sizes;
+        this.profiles = builder.profiles;
+        this.utilizationTarget = builder.utilizationTarget;
+        this.variants = builder.variants;
+        this.seed = builder.seed;
+        this.output = builder.output;
+    }
+
+    public static LoadTestConfig fromArgs(String[] args) {
+        Builder builder = new Builder();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            String key = arg.substring(0, eq).trim();
+            String value = arg.substring(eq + 1).trim();
+            switch (key) {
+                case "host" -> builder.host(value);
+                case "port" -> builder.port(Integer.parseInt(value));
+                case "channels" -> builder.channels(Integer.parseInt(value));
+                case "maxInFlight" -> builder.maxInFlight(Integer.parseInt(value));
+                case "rate" -> builder.rate(Double.parseDouble(value));
+                case "arrival" -> builder.arrival(Arrival.valueOf(value.toUpperCase()));
+                case "warmup" -> builder.warmupSeconds(Integer.parseInt(value));
+                case "duration" -> builder.durationSeconds(Integer.parseInt(value));
+                case "deadlineMs" -> builder.deadlineMillis(Long.parseLong(value));
+                case "mix" -> builder.mix(parseMix(value));
+                case "sizes" -> builder.sizes(Arrays.stream(value.split(",")).map(Size::parse).toList());
+                case "profiles" -> builder.profiles(Arrays.stream(value.split(","))
+                        .map(p -> ProjectGenerator.RequirementProfile.valueOf(p.trim().toUpperCase())).toList());
+                case "utilizationTarget" -> builder.utilizationTarget(Double.parseDouble(value));
+                case "variants" -> builder.variants(Integer.parseInt(value));
+                case "seed" -> builder.seed(Long.parseLong(value));
+                case "output" -> builder.output(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+        return builder.build();
+    }
+
+    private static Map<AllocationEngine, Double> parseMix(String value) {
+        Map<AllocationEngine, Double> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] kv = part.split(":");
+            mix.put(AllocationEngine.valueOf(kv[0].trim().toUpperCase()), kv.length > 1 ? Double.parseDouble(kv[1]) : 1.0);
+        }
+        return mix;
+    }
+
+    public String host() { return host; }
+    public int port() { return port; }
+    public int channels() { return channels; }
+    public int maxInFlight() { return maxInFlight; }
+    public double rate() { return rate; }
+    public Arrival arrival() { return arrival; }
+    public int warmupSeconds() { return warmupSeconds; }
+    public int durationSeconds() { return durationSeconds; }
+    public long deadlineMillis() { return deadlineMillis; }
+    public Map<AllocationEngine, Double> mix() { return mix; }
+    public List<Size> sizes() { return sizes; }
+    public List<ProjectGenerator.RequirementProfile> profiles() { return profiles; }
+    public double utilizationTarget() { return utilizationTarget; }
+    public int variants() { return variants; }
+    public long seed() { return seed; }
+    public String output() { return output; }
+
+    @Override
+    public String toString() {
+        return "host=" + host + ":" + port + ", channels=" + channels + ", maxInFlight=" + maxInFlight
+                + ", rate=" + rate + "/s (" + arrival + "), warmup=" + warmupSeconds + "s, duration=" + durationSeconds
+                + "s, deadline=" + deadlineMillis + "ms, mix=" + mix + ", sizes=" + sizes + ", profiles=" + profiles
+                + ", utilizationTarget=" + utilizationTarget + ", variants=" + variants + ", seed=" + seed;
+    }
+
+    public static class Builder {
+        private String host = "localhost";
+        private int port = 8082;
+        private int channels = 4;
+        private int maxInFlight = 256;
+        private double rate = 20;
+        private Arrival arrival = Arrival.POISSON;
+        private int warmupSeconds = 10;
+        private int durationSeconds = 60;
+        private long deadlineMillis = 30_000;
+        private Map<AllocationEngine, Double> mix = new LinkedHashMap<>(Map.of(AllocationEngine.GREEDY, 1.0));
+        private List<Size> sizes = new ArrayList<>(List.of(new Size(100, 50)));
+        private List<ProjectGenerator.RequirementProfile> profiles = new ArrayList<>(List.of(ProjectGenerator.RequirementProfile.BALANCED));
+        private double utilizationTarget = 100;
+        private int variants = 4;
+        private long seed = 42;
+        private String output = "loadtest-report.txt";
+
+        public Builder host(String val) {
+            host = val;
+            return this;
+        }
+
+        public Builder port(int val) {
+            port = val;
+            return this;
+        }
+
+        public Builder channels(int val) {
+            channels = val;
+            return this;
+        }
+
+        public Builder maxInFlight(int val) {
+            maxInFlight = val;
+            return this;
+        }
+
+        public Builder rate(double val) {
+            rate = val;
+            return this;
+        }
+
+        public Builder arrival(Arrival val) {
+            arrival = val;
+            return this;
+        }
+
+        public Builder warmupSeconds(int val) {
+            warmupSeconds = val;
+            return this;
+        }
+
+        public Builder durationSeconds(int val) {
+            durationSeconds = val;
+            return this;
+        }
+
+        public Builder deadlineMillis(long val) {
+            deadlineMillis = val;
+            return this;
+        }
+
+        public Builder mix(Map<AllocationEngine, Double> val) {
+            mix = val;
+            return this;
+        }
+
+        public Builder sizes(List<Size> val) {
+            sizes = val;
+            return this;
+        }
+
+        public Builder profiles(List<ProjectGenerator.RequirementProfile> val) {
+            profiles = val;
+            return this;
+        }
+
+        public Builder utilizationTarget(double val) {
+            utilizationTarget = val;
+            return this;
+        }
+
+        public Builder variants(int val) {
+            variants = val;
+            return this;
+        }
+
+        public Builder seed(long val) {
+            seed = val;
+            return this;
+        }
+
+        public Builder output(String val) {
+            output = val;
+            return this;
+        }
+
+        public LoadTestConfig build() {
+            return new LoadTestConfig(this);
+        }
+    }
+}
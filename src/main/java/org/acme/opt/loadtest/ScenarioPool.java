@@ -0,0 +1,62 @@
+package org.acme.opt.loadtest;
+
+import org.acme.opt.generators.ProjectGenerator;
+import org.acme.opt.generators.ResourceGenerator;
+import org.acme.opt.mappers.AllocationRequestMapper;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.SolverStrategy;
+import org.acme.opt.models.enums.GreedyOrder;
+import org.acme.opt.models.enums.GreedyStrategy;
+import resourceallocation.AllocationRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Pre-built requests for every configured size x profile combination, generated before the run starts so that
+ * request construction never competes with the load loop. Each combination gets a few variants with different seeds.
+ */
+public class ScenarioPool {
+    public record Scenario(String label, AllocationRequest request) {
+    }
+
+    private final List<Scenario> scenarios = new ArrayList<>();
+
+    public ScenarioPool(LoadTestConfig config) {
+        AllocationRequestMapper mapper = new AllocationRequestMapper();
+        SolverStrategy strategy = new SolverStrategy(GreedyStrategy.PROJECT_SIZE, GreedyOrder.LARGEST_FIRST);
+        long variantSeed = config.seed();
+
+        for (LoadTestConfig.Size size : config.sizes()) {
+            for (ProjectGenerator.RequirementProfile profile : config.profiles()) {
+                for (int v = 0; v < config.variants(); v++, variantSeed++) {
+                    List<SolverResource> resources = new ResourceGenerator.Builder()
+                            .numResources(size.resources())
+                            .seed(variantSeed)
+                            .build()
+                            .generate();
+                    List<SolverProject> projects = new ProjectGenerator.Builder()
+                            .numProjects(size.projects())
+                            .resources(resources)
+                            .profile(profile)
+                            .utilizationTarget(config.utilizationTarget())
+                            .seed(variantSeed)
+                            .build()
+                            .generateParallel();
+                    scenarios.add(new Scenario(size + "/" + profile,
+                            mapper.buildAllocationRequest(resources, projects, strategy)));
+                }
+            }
+        }
+    }
+
+    public Scenario pick(SplittableRandom random) {
+        return scenarios.get(random.nextInt(scenarios.size()));
+    }
+
+    public int size() {
+        return scenarios.size();
+    }
+}
@@ -0,0 +1,53 @@
+package org.acme.opt.mappers;
+
+import resourceallocation.AllocationRequest;
+import resourceallocation.AllocationResponse;
+import resourceallocation.ProjectAllocation;
+import resourceallocation.ProjectStats;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Client-side counterpart of the delta mode: keeps the reconstructed state of one session and stamps outgoing
+ * requests with the session id and the version of the last applied response.
+ */
+public class AllocationDeltaApplier {
+    private final String sessionId;
+    private final Map<String, ProjectAllocation> allocations = new HashMap<>();
+    private final Map<String, ProjectStats> stats = new HashMap<>();
+    private String version = "";
+
+    public AllocationDeltaApplier(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public AllocationRequest prepare(AllocationRequest request) {
+        return request.toBuilder()
+                .setSessionId(sessionId)
+                .setBaseVersion(version)
+                .build();
+    }
+
+    public void apply(AllocationResponse response) {
+        if (response.getFullResync()) {
+            allocations.clear();
+            stats.clear();
+        }
+        allocations.putAll(response.getProjectAllocationsMap());
+        stats.putAll(response.getProjectStatsMap());
+        response.getRemovedProjectsList().forEach(projectId -> {
+            allocations.remove(projectId);
+            stats.remove(projectId);
+        });
+        version = response.getVersionToken();
+    }
+
+    public Map<String, ProjectAllocation> getAllocations() {
+        return allocations;
+    }
+
+    public Map<String, ProjectStats> getStats() {
+        return stats;
+    }
+}
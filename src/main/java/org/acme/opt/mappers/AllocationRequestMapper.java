@@ -0,0 +1,39 @@
+package org.acme.opt.mappers;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.SolverStrategy;
+import resourceallocation.AllocationRequest;
+import resourceallocation.Project;
+import resourceallocation.Resource;
+
+import java.util.List;
+
+public class AllocationRequestMapper {
+
+    public AllocationRequest buildAllocationRequest(List<SolverResource> resources, List<SolverProject> projects, SolverStrategy strategy) {
+        AllocationRequest.Builder requestBuilder = AllocationRequest.newBuilder();
+
+        for (SolverResource resource : resources) {
+            requestBuilder.addResources(Resource.newBuilder()
+                    .setId(resource.getId())
+                    .setName(resource.getName())
+                    .setCapacity(resource.getAvailableCapacity())
+                    .setCost(resource.getCost())
+                    .build());
+        }
+
+        for (SolverProject project : projects) {
+            requestBuilder.addProjects(Project.newBuilder()
+                    .setId(project.getId())
+                    .setName(project.getName())
+                    .putAllRequirements(project.getRequirements())
+                    .setPriority(project.getPriority())
+                    .build());
+        }
+
+        requestBuilder.setStrategy(strategy.toProto());
+
+        return requestBuilder.build();
+    }
+}
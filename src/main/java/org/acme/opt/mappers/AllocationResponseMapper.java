@@ -2,12 +2,21 @@ package org.acme.opt.mappers;
 
 import org.acme.opt.models.SolverProject;
 import org.acme.opt.models.SolverResource;
+import org.acme.opt.profiling.SolverPhaseEvent;
+import org.acme.opt.profiling.SolverPhaseEvent.Phase;
+import org.acme.opt.routing.CostModel;
 import org.acme.opt.solvers.BaseSolver;
+import org.acme.opt.solvers.LocalSearchSolver;
+import org.acme.opt.solvers.LpSensitivity;
+import org.acme.opt.solvers.ProjectSelectionSolver;
+import org.acme.opt.solvers.RobustAllocationSolver;
 import org.acme.opt.solvers.MaximizeResourceUsage;
 import resourceallocation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -21,25 +30,8 @@ public class AllocationResponseMapper {
 
         // For each project, build a ProjectAllocation.
         result.forEach((project, resources) -> {
-            // Group resources by resourceId and count their occurrences.
-            Map<String, Long> groupedResources = resources.stream()
-                    .collect(Collectors.groupingBy(SolverResource::getId, Collectors.counting()));
-
-            ProjectAllocation.Builder projectAllocationBuilder = ProjectAllocation.newBuilder();
-            // Use project name or project ID as needed.
-            projectAllocationBuilder.setProjectId(project.getId());
-
-            // Build ResourceAllocation messages.
-            groupedResources.forEach((resourceId, count) -> {
-                ResourceAllocation resourceAllocation = ResourceAllocation.newBuilder()
-                        .setResourceId(resourceId)
-                        .setAllocatedAmount(count.intValue())
-                        .build();
-                projectAllocationBuilder.addResourceAllocations(resourceAllocation);
-            });
-
             // Add the project allocation to the response map.
-            allocationResponseBuilder.putProjectAllocations(project.getCompletionRate(), projectAllocationBuilder.build());
+            allocationResponseBuilder.putProjectAllocations(project.getCompletionRate(), buildProjectAllocation(project, resources));
         });
 
         // Set the overall allocation status.
@@ -48,7 +40,39 @@ public class AllocationResponseMapper {
         return allocationResponseBuilder.build();
     }
 
+    // Same allocations as the response map, but keyed by project id so that no entry can collide.
+    public Map<String, ProjectAllocation> buildProjectAllocationsById(Map<SolverProject, List<SolverResource>> result) {
+        Map<String, ProjectAllocation> allocations = new LinkedHashMap<>();
+        result.forEach((project, resources) -> allocations.put(project.getId(), buildProjectAllocation(project, resources)));
+        return allocations;
+    }
+
+    public ProjectAllocation buildProjectAllocation(SolverProject project, List<SolverResource> resources) {
+        // Group resources by resourceId and count their occurrences (sorted, so equal allocations compare equal).
+        Map<String, Long> groupedResources = resources.stream()
+                .collect(Collectors.groupingBy(SolverResource::getId, TreeMap::new, Collectors.counting()));
+        Map<String, Integer> quantities = resources.stream()
+                .collect(Collectors.groupingBy(SolverResource::getId, Collectors.summingInt(SolverResource::getAvailableCapacity)));
+
+        ProjectAllocation.Builder projectAllocationBuilder = ProjectAllocation.newBuilder();
+        // Use project name or project ID as needed.
+        projectAllocationBuilder.setProjectId(project.getId());
+
+        // Build ResourceAllocation messages.
+        groupedResources.forEach((resourceId, count) -> {
+            ResourceAllocation resourceAllocation = ResourceAllocation.newBuilder()
+                    .setResourceId(resourceId)
+                    .setAllocatedAmount(count.intValue())
+                    .setAllocatedQuantity(quantities.get(resourceId))
+                    .build();
+            projectAllocationBuilder.addResourceAllocations(resourceAllocation);
+        });
+
+        return projectAllocationBuilder.build();
+    }
+
     public AllocationResponse buildAllocationResponseMetadata(Map<SolverProject, List<SolverResource>> result, List<SolverResource> resources, List<SolverProject> projects, BaseSolver solver) {
+        SolverPhaseEvent event = SolverPhaseEvent.start(Phase.MAPPING, solver.getClass().getSimpleName());
         // First build the base response without metadata
         AllocationResponse.Builder responseBuilder = AllocationResponse.newBuilder(buildAllocationResponseNoMetadata(result));
 
@@ -130,6 +154,76 @@ public class AllocationResponseMapper {
             responseBuilder.putProjectStats(project.getId(), projectStatsBuilder.build());
         }
 
-        return responseBuilder.build();
+        AllocationResponse response = responseBuilder.build();
+        event.end(resources, projects, response.getStatus().name());
+        return response;
+    }
+
+    public AllocationResponse withLocalSearchReport(AllocationResponse response, LocalSearchSolver.Report report) {
+        AllocationStats globalStats = response.getGlobalStats().toBuilder()
+                .setConstructionObjective(report.constructionObjective())
+                .setImprovedObjective(report.improvedObjective())
+                .build();
+        return response.toBuilder().setGlobalStats(globalStats).build();
+    }
+
+    public AllocationResponse withSelectionReport(AllocationResponse response, ProjectSelectionSolver.Report report) {
+        AllocationStats globalStats = response.getGlobalStats().toBuilder()
+                .setFundedProjects(report.fundedProjects())
+                .setProvenOptimal(report.provenOptimal())
+                .build();
+        return response.toBuilder().setGlobalStats(globalStats).build();
+    }
+
+    // Every project gets its quantiles, including those the robust allocation leaves without resources
+    public AllocationResponse withRobustReport(AllocationResponse response, RobustAllocationSolver.Report report) {
+        AllocationResponse.Builder builder = response.toBuilder();
+        builder.setGlobalStats(response.getGlobalStats().toBuilder()
+                .setScenarios(report.scenarios())
+                .setCapacityFactor(report.capacityFactor())
+                .setPlanReliability(report.planReliability()));
+        report.completions().forEach((projectId, q) -> builder.putProjectStats(projectId,
+                response.getProjectStatsOrDefault(projectId, ProjectStats.getDefaultInstance()).toBuilder()
+                        .setCompletionQuantiles(CompletionQuantiles.newBuilder()
+                                .setP10(q.p10())
+                                .setP50(q.p50())
+                                .setP90(q.p90())
+                                .setMean(q.mean())
+                                .setFullProbability(q.fullProbability()))
+                        .build()));
+        return builder.build();
+    }
+
+    public AllocationResponse withRouting(AllocationResponse response, CostModel.Decision decision, double solveMillis) {
+        AllocationStats globalStats = response.getGlobalStats().toBuilder()
+                .setRoutedTo(decision.route().name())
+                .setPredictedMs(decision.predictedMillis())
+                .setPredictedQuality(decision.predictedQuality())
+                .setSolveMs(solveMillis)
+                .build();
+        return response.toBuilder().setGlobalStats(globalStats).build();
+    }
+
+    public AllocationResponse withSensitivity(AllocationResponse response, LpSensitivity.Report report, int topK) {
+        AllocationStats.Builder globalStats = response.getGlobalStats().toBuilder();
+        report.resources().forEach(r -> globalStats.addResourceSensitivity(buildResourceSensitivity(r)));
+        report.reducedCosts().forEach(c -> globalStats.addReducedCosts(AllocationStats.ReducedCost.newBuilder()
+                .setProjectId(c.projectId())
+                .setResourceId(c.resourceId())
+                .setReducedCost(c.reducedCost())));
+        report.bottlenecks(topK).forEach(r -> globalStats.addBottlenecks(buildResourceSensitivity(r)));
+        return response.toBuilder().setGlobalStats(globalStats).build();
+    }
+
+    private AllocationStats.ResourceSensitivity buildResourceSensitivity(LpSensitivity.ResourceSensitivity sensitivity) {
+        return AllocationStats.ResourceSensitivity.newBuilder()
+                .setResourceId(sensitivity.resourceId())
+                .setCapacity(sensitivity.capacity())
+                .setDemand(sensitivity.demand())
+                .setUsed(sensitivity.used())
+                .setShadowPrice(sensitivity.shadowPrice())
+                .setCapacityRangeLower(sensitivity.rangeLower())
+                .setCapacityRangeUpper(sensitivity.rangeUpper())
+                .build();
     }
 }
@@ -0,0 +1,90 @@
+package org.acme.opt.mappers;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import resourceallocation.ColumnarAllocation;
+import resourceallocation.ProjectAllocation;
+import resourceallocation.ProjectStats;
+import resourceallocation.ResourceAllocation;
+
+import java.util.*;
+
+/**
+ * Encodes an allocation as a {@link ColumnarAllocation}, and decodes it back for clients.
+ * <p>
+ * Every id is written once in a dictionary, and the entries are packed int columns. That makes the message a few
+ * bytes per entry, instead of a nested message per resource plus a map entry per project. Entries are grouped by
+ * project, in dictionary order. Amounts and quantities mean what they mean in {@link ResourceAllocation}, so a decoded
+ * response equals the map form of the same allocation.
+ */
+public final class ColumnarAllocationCodec {
+
+    private ColumnarAllocationCodec() {
+    }
+
+    /**
+     * @param projectStats the response's project stats, where completions are taken from
+     */
+    public static ColumnarAllocation encode(Map<SolverProject, List<SolverResource>> result, Map<String, ProjectStats> projectStats) {
+        ColumnarAllocation.Builder columnar = ColumnarAllocation.newBuilder();
+        Map<String, Integer> resourceIndex = new HashMap<>();
+        int projectIndex = 0;
+        for (Map.Entry<SolverProject, List<SolverResource>> entry : result.entrySet()) {
+            String projectId = entry.getKey().getId();
+            columnar.addProjectIds(projectId);
+            ProjectStats stats = projectStats.get(projectId);
+            columnar.addCompletion(stats != null ? stats.getCompletionPercentage() : 0);
+
+            Map<String, Integer> amounts = new TreeMap<>();
+            Map<String, Integer> quantities = new HashMap<>();
+            for (SolverResource r : entry.getValue()) {
+                amounts.merge(r.getId(), 1, Integer::sum);
+                quantities.merge(r.getId(), r.getAvailableCapacity(), Integer::sum);
+            }
+            for (Map.Entry<String, Integer> amount : amounts.entrySet()) {
+                Integer resource = resourceIndex.get(amount.getKey());
+                if (resource == null) {
+                    resource = resourceIndex.size();
+                    resourceIndex.put(amount.getKey(), resource);
+                    columnar.addResourceIds(amount.getKey());
+                }
+                columnar.addEntryProject(projectIndex)
+                        .addEntryResource(resource)
+                        .addEntryAmount(amount.getValue())
+                        .addEntryQuantity(quantities.get(amount.getKey()));
+            }
+            projectIndex++;
+        }
+        return columnar.build();
+    }
+
+    /**
+     * Rebuilds the per-project allocations keyed by project id, as the map responses carry them.
+     */
+    public static Map<String, ProjectAllocation> decode(ColumnarAllocation columnar) {
+        ProjectAllocation.Builder[] projects = new ProjectAllocation.Builder[columnar.getProjectIdsCount()];
+        for (int p = 0; p < projects.length; p++) {
+            projects[p] = ProjectAllocation.newBuilder().setProjectId(columnar.getProjectIds(p));
+        }
+        for (int k = 0; k < columnar.getEntryProjectCount(); k++) {
+            projects[columnar.getEntryProject(k)].addResourceAllocations(ResourceAllocation.newBuilder()
+                    .setResourceId(columnar.getResourceIds(columnar.getEntryResource(k)))
+                    .setAllocatedAmount(columnar.getEntryAmount(k))
+                    .setAllocatedQuantity(columnar.getEntryQuantity(k)));
+        }
+        Map<String, ProjectAllocation> allocations = new LinkedHashMap<>();
+        for (ProjectAllocation.Builder project : projects) {
+            allocations.put(project.getProjectId(), project.build());
+        }
+        return allocations;
+    }
+
+    // Completion percentage by project id
+    public static Map<String, Double> completions(ColumnarAllocation columnar) {
+        Map<String, Double> completions = new LinkedHashMap<>();
+        for (int p = 0; p < columnar.getProjectIdsCount(); p++) {
+            completions.put(columnar.getProjectIds(p), columnar.getCompletion(p));
+        }
+        return completions;
+    }
+}
@@ -0,0 +1,192 @@
+package org.acme.opt.models;
+
+import lombok.Getter;
+import org.acme.opt.solvers.BaseSolver;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Integer-indexed view of a problem for the solvers that work on arrays rather than on maps.
+ * <p>
+ * Resources are indexed 0..R-1 with capacities summed by id (as both solvers do with {@code groupingBy}); requirements
+ * on unknown ids get a zero-capacity resource so that completion still accounts for them. Projects keep their list
+ * index. Requirement entries are stored per project (CSR, sorted by resource within a row) and the entries of each
+ * resource are listed in project order (CSC), so "projects sharing a resource" is a contiguous slice.
+ */
+@Getter
+public class IndexedProblem {
+    private final List<SolverProject> projects;
+    private final String[] resourceIds;
+    private final String[] resourceNames;
+    private final int[] resourceCosts;
+    private final int[] capacity;
+    private final int[] priority;
+    private final long[] projectSize;
+
+    // CSR: entries rowStart[p]..rowStart[p+1]-1 belong to project p
+    private final int[] rowStart;
+    private final int[] entryProject;
+    private final int[] entryResource;
+    private final int[] entryRequirement;
+
+    // CSC: columnEntries[columnStart[r]..columnStart[r+1]-1] are the entries of resource r, in project order
+    private final int[] columnStart;
+    private final int[] columnEntries;
+
+    private final Map<String, Integer> resourceIndex;
+
+    public IndexedProblem(List<SolverResource> resources, List<SolverProject> projects) {
+        this.projects = projects;
+
+        resourceIndex = new LinkedHashMap<>();
+        List<String> names = new ArrayList<>();
+        List<Integer> costs = new ArrayList<>();
+        List<Integer> capacities = new ArrayList<>();
+        for (SolverResource resource : resources) {
+            Integer r = resourceIndex.get(resource.getId());
+            if (r == null) {
+                resourceIndex.put(resource.getId(), capacities.size());
+                names.add(resource.getName());
+                costs.add(resource.getCost());
+                capacities.add(resource.getAvailableCapacity());
+            } else {
+                capacities.set(r, capacities.get(r) + resource.getAvailableCapacity());
+            }
+        }
+        for (SolverProject project : projects) {
+            for (String resourceId : project.getRequirements().keySet()) {
+                if (!resourceIndex.containsKey(resourceId)) {
+                    resourceIndex.put(resourceId, capacities.size());
+                    names.add(resourceId);
+                    costs.add(0);
+                    capacities.add(0);
+                }
+            }
+        }
+
+        int numResources = capacities.size();
+        int numProjects = projects.size();
+        resourceIds = resourceIndex.keySet().toArray(String[]::new);
+        resourceNames = names.toArray(String[]::new);
+        resourceCosts = costs.stream().mapToInt(Integer::intValue).toArray();
+        capacity = capacities.stream().mapToInt(Integer::intValue).toArray();
+        priority = new int[numProjects];
+        projectSize = new long[numProjects];
+
+        rowStart = new int[numProjects + 1];
+        for (int p = 0; p < numProjects; p++) {
+            rowStart[p + 1] = rowStart[p] + projects.get(p).getRequirements().size();
+        }
+        int nonZeros = rowStart[numProjects];
+        entryProject = new int[nonZeros];
+        entryResource = new int[nonZeros];
+        entryRequirement = new int[nonZeros];
+        int[] columnCount = new int[numResources];
+
+        for (int p = 0; p < numProjects; p++) {
+            SolverProject project = projects.get(p);
+            priority[p] = project.getPriority();
+            int[][] row = project.getRequirements().entrySet().stream()
+                    .map(e -> new int[]{resourceIndex.get(e.getKey()), e.getValue()})
+                    .sorted(Comparator.comparingInt(e -> e[0]))
+                    .toArray(int[][]::new);
+            for (int i = 0; i < row.length; i++) {
+                int k = rowStart[p] + i;
+                entryProject[k] = p;
+                entryResource[k] = row[i][0];
+                entryRequirement[k] = row[i][1];
+                projectSize[p] += row[i][1];
+                columnCount[row[i][0]]++;
+            }
+        }
+
+        columnStart = new int[numResources + 1];
+        for (int r = 0; r < numResources; r++) {
+            columnStart[r + 1] = columnStart[r] + columnCount[r];
+        }
+        columnEntries = new int[nonZeros];
+        int[] fill = Arrays.copyOf(columnStart, numResources);
+        for (int k = 0; k < nonZeros; k++) {
+            columnEntries[fill[entryResource[k]]++] = k;
+        }
+    }
+
+    public int numProjects() {
+        return projects.size();
+    }
+
+    public int numResources() {
+        return capacity.length;
+    }
+
+    public int nonZeros() {
+        return entryRequirement.length;
+    }
+
+    // Entry of project p on resource r, or -1 if p does not require r.
+    public int entryOf(int project, int resource) {
+        int k = Arrays.binarySearch(entryResource, rowStart[project], rowStart[project + 1], resource);
+        return k >= 0 ? k : -1;
+    }
+
+    // Project indices sorted with the given comparator; ties keep the input order, like a stable stream sort.
+    public int[] order(Comparator<SolverProject> comparator) {
+        return IntStream.range(0, numProjects()).boxed()
+                .sorted(Comparator.comparing(projects::get, comparator))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    // Sequential greedy over the given project order: every requirement gets min(requirement, remaining).
+    public int[] greedy(int[] order, int[] capacities) {
+        int[] allocated = new int[nonZeros()];
+        greedy(order, capacities, allocated, new int[capacities.length]);
+        return allocated;
+    }
+
+    // Same, into caller-owned arrays, for callers that solve many times and reuse them; order must hold every project.
+    public void greedy(int[] order, int[] capacities, int[] allocated, int[] remaining) {
+        System.arraycopy(capacities, 0, remaining, 0, remaining.length);
+        for (int p : order) {
+            for (int k = rowStart[p]; k < rowStart[p + 1]; k++) {
+                int r = entryResource[k];
+                int amount = entryRequirement[k] > 0 ? Math.min(entryRequirement[k], remaining[r]) : 0;
+                allocated[k] = amount;
+                remaining[r] -= amount;
+            }
+        }
+    }
+
+    // Completion of a project from per-entry allocations
+    public double completion(int project, int[] allocated) {
+        long assigned = 0;
+        for (int k = rowStart[project]; k < rowStart[project + 1]; k++) {
+            assigned += allocated[k];
+        }
+        return BaseSolver.completion(assigned, projectSize[project]);
+    }
+
+    /**
+     * Converts per-entry allocations into the map returned by the solvers: projects with at least one allocated unit,
+     * one SolverResource per allocated requirement, completion rate set on the project.
+     */
+    public Map<SolverProject, List<SolverResource>> toResult(int[] allocated) {
+        Map<SolverProject, List<SolverResource>> result = new HashMap<>();
+        for (int p = 0; p < numProjects(); p++) {
+            List<SolverResource> assigned = new ArrayList<>();
+            for (int k = rowStart[p]; k < rowStart[p + 1]; k++) {
+                if (allocated[k] > 0) {
+                    int r = entryResource[k];
+                    assigned.add(new SolverResource(resourceIds[r], resourceNames[r], allocated[k], resourceCosts[r]));
+                }
+            }
+            if (!assigned.isEmpty()) {
+                SolverProject project = projects.get(p);
+                project.setCompletionRate(String.valueOf(completion(p, allocated)));
+                result.put(project, assigned);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,31 @@
+package org.acme.opt.models;
+
+import resourceallocation.AllocationRequest;
+import resourceallocation.SubstitutionGroup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Per-request solver settings shared by the gRPC and REST entry points.
+public record SolveOptions(SolverStrategy strategy, int improvementTimeLimitMs, double minCompletion,
+                           Map<String, Set<String>> substitutionGroups) {
+
+    public SolveOptions(SolverStrategy strategy, int improvementTimeLimitMs, double minCompletion) {
+        this(strategy, improvementTimeLimitMs, minCompletion, Map.of());
+    }
+
+    public static SolveOptions fromProto(AllocationRequest request) {
+        return new SolveOptions(SolverStrategy.fromProto(request.getStrategy()),
+                request.getStrategy().getImprovementTimeLimitMs(), request.getMinCompletion(),
+                substitutionGroups(request.getSubstitutionGroupsList()));
+    }
+
+    // Group id -> interchangeable resource ids
+    public static Map<String, Set<String>> substitutionGroups(List<SubstitutionGroup> groups) {
+        Map<String, Set<String>> byId = new LinkedHashMap<>();
+        groups.forEach(g -> byId.put(g.getId(), Set.copyOf(g.getResourceIdsList())));
+        return byId;
+    }
+}
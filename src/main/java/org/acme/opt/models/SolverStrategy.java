@@ -8,4 +8,11 @@ public record SolverStrategy (GreedyStrategy strategy, GreedyOrder order) {
     public static SolverStrategy fromProto(AllocationStrategy message) {
         return new SolverStrategy(GreedyStrategy.fromProto(message.getCriteria()), GreedyOrder.fromProto(message.getOrder()));
     }
+
+    public AllocationStrategy toProto() {
+        return AllocationStrategy.newBuilder()
+                .setCriteria(strategy.toProto())
+                .setOrder(order.toProto())
+                .build();
+    }
 }
\ No newline at end of file
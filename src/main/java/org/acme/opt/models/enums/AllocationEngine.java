@@ -0,0 +1,31 @@
+package org.acme.opt.models.enums;
+
+import resourceallocation.SolverEngine;
+
+// Solver engines that can be selected outside of the per-engine gRPC methods. Append new values at the end:
+// ordinals are persisted in snapshot headers.
+public enum AllocationEngine {
+    GREEDY, LINEAR_PROGRAMMING, PROJECT_SELECTION, FAIR_SHARE, MIN_COST_FLOW, LEXICOGRAPHIC;
+
+    public static AllocationEngine fromProto(SolverEngine protoEnum) {
+        return switch (protoEnum) {
+            case ENGINE_LINEAR_PROGRAMMING -> LINEAR_PROGRAMMING;
+            case ENGINE_PROJECT_SELECTION -> PROJECT_SELECTION;
+            case ENGINE_FAIR_SHARE -> FAIR_SHARE;
+            case ENGINE_MIN_COST_FLOW -> MIN_COST_FLOW;
+            case ENGINE_LEXICOGRAPHIC -> LEXICOGRAPHIC;
+            default -> GREEDY;
+        };
+    }
+
+    public SolverEngine toProto() {
+        return switch (this) {
+            case GREEDY -> SolverEngine.ENGINE_GREEDY;
+            case LINEAR_PROGRAMMING -> SolverEngine.ENGINE_LINEAR_PROGRAMMING;
+            case PROJECT_SELECTION -> SolverEngine.ENGINE_PROJECT_SELECTION;
+            case FAIR_SHARE -> SolverEngine.ENGINE_FAIR_SHARE;
+            case MIN_COST_FLOW -> SolverEngine.ENGINE_MIN_COST_FLOW;
+            case LEXICOGRAPHIC -> SolverEngine.ENGINE_LEXICOGRAPHIC;
+        };
+    }
+}
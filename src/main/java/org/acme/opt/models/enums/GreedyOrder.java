@@ -12,4 +12,12 @@ public enum GreedyOrder {
             default -> UNKNOWN;
         };
     }
+
+    public GreedyCriteriaOrder toProto() {
+        return switch (this) {
+            case LARGEST_FIRST -> GreedyCriteriaOrder.LARGEST_FIRST;
+            case SMALLEST_FIRST -> GreedyCriteriaOrder.SMALLEST_FIRST;
+            case UNKNOWN -> GreedyCriteriaOrder.DEFAULT_ORDER;
+        };
+    }
 }
\ No newline at end of file
@@ -14,4 +14,13 @@ public enum GreedyStrategy {
             default -> UNKNOWN;
         };
     }
+
+    public GreedyCriteria toProto() {
+        return switch (this) {
+            case PROJECT_SIZE -> GreedyCriteria.PROJECT_SIZE;
+            case ASSOCIATION_ACTIVITY -> GreedyCriteria.ASSOCIATION_ACTIVITY;
+            case CREATION_DATE -> GreedyCriteria.CREATION_DATE;
+            case UNKNOWN -> GreedyCriteria.DEFAULT_CRITERIA;
+        };
+    }
 }
@@ -0,0 +1,352 @@
+package org.acme.opt.offheap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Reads a problem from three CSV files straight into an {@link OffHeapProblem}, for inputs the heap cannot hold:
+ * <pre>
+ *   resources     id,capacity[,cost]
+ *   projects      id[,priority]
+ *   requirements  project_id,resource_id,amount
+ * </pre>
+ * Every file starts with a header line. Fields are separated by commas and not quoted; blank lines are skipped.
+ * <p>
+ * Each file is memory-mapped in chunks cut at line boundaries, and the chunks are parsed in parallel. Projects keep the
+ * order of their file and requirements the order of theirs, so the problem does not depend on the chunk size. Ids are
+ * looked up in off-heap tables over their UTF-8 bytes: only the resources and the chunks' bookkeeping are on the heap.
+ * Resources behave as with {@link OffHeapProblem.Builder}: duplicate ids are merged by summing capacity, and
+ * requirements on unknown ids add a zero-capacity resource.
+ */
+public final class CsvProblemReader {
+    public static final int DEFAULT_CHUNK_BYTES = 64 * 1024 * 1024;
+
+    // Lines start..end-1 of a file, the last one ending with a newline or at the end of the file
+    private record Chunk(long start, long end) {
+    }
+
+    @FunctionalInterface
+    private interface LineParser {
+        // bounds holds the [start, end) of each field in the chunk, offset is the position of the line in the file
+        void parse(ByteBuffer chunk, int[] bounds, int fields, long offset);
+    }
+
+    private record ResourceRow(String id, int capacity, int cost) {
+    }
+
+    private record ProjectChunk(DirectByteArray ids, DirectIntArray idEnds, DirectIntArray priorities) {
+    }
+
+    // Columns below 0 are requirements on ids missing from the resource file: ~column indexes unknown
+    private record RequirementChunk(DirectIntArray projects, DirectIntArray columns, DirectIntArray amounts,
+                                    Map<String, Integer> unknown) {
+    }
+
+    private final int chunkBytes;
+
+    public CsvProblemReader(int chunkBytes) {
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.chunkBytes = chunkBytes;
+    }
+
+    public OffHeapProblem read(Path resourceFile, Path projectFile, Path requirementFile) throws IOException {
+        // Resources: merged on the heap, they are bounded by the number of distinct ids
+        Map<String, int[]> resources = new LinkedHashMap<>();
+        for (List<ResourceRow> rows : parse(resourceFile, this::resourceChunk)) {
+            for (ResourceRow row : rows) {
+                int[] values = resources.get(row.id());
+                if (values == null) {
+                    resources.put(row.id(), new int[]{row.capacity(), row.cost()});
+                } else {
+                    values[0] += row.capacity();
+                }
+            }
+        }
+        ByteBuffer[] resourceIds = dictionary(resources.keySet());
+        IdIndex resourceIndex = new IdIndex(resourceIds[0], resourceIds[1], resources.size(), "resource");
+
+        // Projects: chunks are concatenated into the final sections at their offsets
+        List<ProjectChunk> projectChunks = parse(projectFile, this::projectChunk);
+        int[] projectBase = new int[projectChunks.size() + 1];
+        int[] idBase = new int[projectChunks.size() + 1];
+        for (int c = 0; c < projectChunks.size(); c++) {
+            projectBase[c + 1] = Math.addExact(projectBase[c], projectChunks.get(c).priorities().size());
+            idBase[c + 1] = Math.addExact(idBase[c], projectChunks.get(c).ids().size());
+        }
+        int numProjects = projectBase[projectChunks.size()];
+        ByteBuffer priorities = OffHeapBuffers.allocate((long) numProjects * Integer.BYTES);
+        ByteBuffer projectIdOffsets = OffHeapBuffers.allocate((long) (numProjects + 1) * Integer.BYTES);
+        ByteBuffer projectIds = OffHeapBuffers.allocate(idBase[projectChunks.size()]);
+        IntStream.range(0, projectChunks.size()).parallel().forEach(c -> {
+            ProjectChunk chunk = projectChunks.get(c);
+            int count = chunk.priorities().size();
+            priorities.put(projectBase[c] * Integer.BYTES, chunk.priorities().seal(), 0, count * Integer.BYTES);
+            projectIds.put(idBase[c], chunk.ids().seal(), 0, chunk.ids().size());
+            for (int i = 0; i < count; i++) {
+                projectIdOffsets.putInt((projectBase[c] + i + 1) * Integer.BYTES, idBase[c] + chunk.idEnds().get(i));
+            }
+        });
+        projectChunks.clear();
+        IdIndex projectIndex = new IdIndex(projectIds, projectIdOffsets, numProjects, "project");
+
+        // Requirements: unknown resources get their index in file order, then entries are bucketed by project
+        List<RequirementChunk> requirementChunks = parse(requirementFile,
+                (file, chunk, offset) -> requirementChunk(file, chunk, offset, resourceIndex, projectIndex));
+        Map<String, Integer> unknown = new LinkedHashMap<>();
+        int[][] unknownIndex = new int[requirementChunks.size()][];
+        long nonZeros = 0;
+        for (int c = 0; c < requirementChunks.size(); c++) {
+            RequirementChunk chunk = requirementChunks.get(c);
+            unknownIndex[c] = chunk.unknown().keySet().stream()
+                    .mapToInt(id -> unknown.computeIfAbsent(id, u -> resources.size() + unknown.size()))
+                    .toArray();
+            nonZeros += chunk.amounts().size();
+        }
+        ByteBuffer rowOffsets = OffHeapBuffers.allocate((long) (numProjects + 1) * Integer.BYTES);
+        ByteBuffer columns = OffHeapBuffers.allocate(nonZeros * Integer.BYTES);
+        ByteBuffer amounts = OffHeapBuffers.allocate(nonZeros * Integer.BYTES);
+        for (RequirementChunk chunk : requirementChunks) {
+            for (int i = 0; i < chunk.projects().size(); i++) {
+                int at = (chunk.projects().get(i) + 1) * Integer.BYTES;
+                rowOffsets.putInt(at, rowOffsets.getInt(at) + 1);
+            }
+        }
+        for (int p = 0; p < numProjects; p++) {
+            int at = (p + 1) * Integer.BYTES;
+            rowOffsets.putInt(at, rowOffsets.getInt(at) + rowOffsets.getInt(p * Integer.BYTES));
+        }
+        ByteBuffer next = OffHeapBuffers.allocate((long) numProjects * Integer.BYTES);
+        next.put(0, rowOffsets, 0, numProjects * Integer.BYTES);
+        for (int c = 0; c < requirementChunks.size(); c++) {
+            RequirementChunk chunk = requirementChunks.get(c);
+            for (int i = 0; i < chunk.projects().size(); i++) {
+                int p = chunk.projects().get(i);
+                int k = next.getInt(p * Integer.BYTES);
+                next.putInt(p * Integer.BYTES, k + 1);
+                int column = chunk.columns().get(i);
+                columns.putInt(k * Integer.BYTES, column >= 0 ? column : unknownIndex[c][~column]);
+                amounts.putInt(k * Integer.BYTES, chunk.amounts().get(i));
+            }
+        }
+        requirementChunks.clear();
+
+        int numResources = resources.size() + unknown.size();
+        ByteBuffer capacities = OffHeapBuffers.allocate((long) numResources * Integer.BYTES);
+        ByteBuffer costs = OffHeapBuffers.allocate((long) numResources * Integer.BYTES);
+        int r = 0;
+        for (int[] values : resources.values()) {
+            capacities.putInt(r * Integer.BYTES, values[0]);
+            costs.putInt(r++ * Integer.BYTES, values[1]);
+        }
+        if (!unknown.isEmpty()) {
+            List<String> ids = new ArrayList<>(resources.keySet());
+            ids.addAll(unknown.keySet());
+            resourceIds = dictionary(ids);
+        }
+
+        System.out.printf("Read %d resources (%d only required), %d projects, %d requirements%n",
+                numResources, unknown.size(), numProjects, nonZeros);
+        return new OffHeapProblem(numResources, numProjects, (int) nonZeros, new ByteBuffer[]{
+                capacities, costs, priorities, rowOffsets, columns, amounts,
+                resourceIds[1], projectIdOffsets, resourceIds[0], projectIds});
+    }
+
+    private List<ResourceRow> resourceChunk(Path file, ByteBuffer chunk, long offset) {
+        List<ResourceRow> rows = new ArrayList<>();
+        forEachLine(file, chunk, offset, 3, (buffer, bounds, fields, line) -> {
+            if (fields < 2) {
+                throw error(file, line, "expected id,capacity[,cost]");
+            }
+            rows.add(new ResourceRow(string(buffer, bounds[0], bounds[1]), parseInt(file, buffer, bounds[2], bounds[3], line),
+                    fields > 2 ? parseInt(file, buffer, bounds[4], bounds[5], line) : 0));
+        });
+        return rows;
+    }
+
+    private ProjectChunk projectChunk(Path file, ByteBuffer chunk, long offset) {
+        ProjectChunk projects = new ProjectChunk(new DirectByteArray(16 * 1024), new DirectIntArray(1024), new DirectIntArray(1024));
+        forEachLine(file, chunk, offset, 2, (buffer, bounds, fields, line) -> {
+            byte[] id = new byte[bounds[1] - bounds[0]];
+            buffer.get(bounds[0], id);
+            projects.ids().add(id);
+            projects.idEnds().add(projects.ids().size());
+            projects.priorities().add(fields > 1 ? parseInt(file, buffer, bounds[2], bounds[3], line) : 0);
+        });
+        return projects;
+    }
+
+    private RequirementChunk requirementChunk(Path file, ByteBuffer chunk, long offset,
+                                              IdIndex resourceIndex, IdIndex projectIndex) {
+        RequirementChunk requirements = new RequirementChunk(new DirectIntArray(16 * 1024), new DirectIntArray(16 * 1024),
+                new DirectIntArray(16 * 1024), new LinkedHashMap<>());
+        forEachLine(file, chunk, offset, 3, (buffer, bounds, fields, line) -> {
+            if (fields < 3) {
+                throw error(file, line, "expected project_id,resource_id,amount");
+            }
+            int project = projectIndex.find(buffer, bounds[0], bounds[1]);
+            if (project < 0) {
+                throw error(file, line, "unknown project " + string(buffer, bounds[0], bounds[1]));
+            }
+            int column = resourceIndex.find(buffer, bounds[2], bounds[3]);
+            if (column < 0) {
+                Map<String, Integer> unknown = requirements.unknown();
+                column = ~unknown.computeIfAbsent(string(buffer, bounds[2], bounds[3]), id -> unknown.size());
+            }
+            requirements.projects().add(project);
+            requirements.columns().add(column);
+            requirements.amounts().add(parseInt(file, buffer, bounds[4], bounds[5], line));
+        });
+        return requirements;
+    }
+
+    @FunctionalInterface
+    private interface ChunkParser<T> {
+        T parse(Path file, ByteBuffer chunk, long offset);
+    }
+
+    // Parses the chunks of a file in parallel; results are in file order
+    private <T> List<T> parse(Path file, ChunkParser<T> parser) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<Chunk> chunks = split(channel);
+            List<ByteBuffer> mapped = new ArrayList<>(chunks.size());
+            for (Chunk chunk : chunks) {
+                // Mappings stay valid after the channel is closed
+                mapped.add(OffHeapBuffers.map(channel, FileChannel.MapMode.READ_ONLY, chunk.start(), chunk.end() - chunk.start()));
+            }
+            return new ArrayList<>(IntStream.range(0, chunks.size()).parallel()
+                    .mapToObj(c -> parser.parse(file, mapped.get(c), chunks.get(c).start()))
+                    .toList());
+        }
+    }
+
+    private List<Chunk> split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Chunk> chunks = new ArrayList<>();
+        for (long start = 0; start < size; ) {
+            long end = start + chunkBytes >= size ? size : nextLine(channel, start + chunkBytes, size);
+            chunks.add(new Chunk(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    // Position right after the first newline at or after position, or the end of the file
+    private static long nextLine(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(8192);
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    // Calls the parser for every non-blank line of a chunk with its trimmed fields; the first line of the file is the header
+    private static void forEachLine(Path file, ByteBuffer chunk, long offset, int maxFields, LineParser parser) {
+        int[] bounds = new int[2 * maxFields];
+        int limit = chunk.limit();
+        for (int position = offset == 0 ? lineEnd(chunk, 0) + 1 : 0; position < limit; ) {
+            int newline = lineEnd(chunk, position);
+            int end = newline > position && chunk.get(newline - 1) == '\r' ? newline - 1 : newline;
+            int fields = 0;
+            int fieldStart = position;
+            boolean blank = true;
+            for (int i = position; i <= end; i++) {
+                if (i < end && chunk.get(i) != ',') {
+                    blank &= chunk.get(i) == ' ' || chunk.get(i) == '\t';
+                    continue;
+                }
+                if (fields == maxFields) {
+                    throw error(file, offset + position, "more than " + maxFields + " fields");
+                }
+                int s = fieldStart;
+                int e = i;
+                while (s < e && (chunk.get(s) == ' ' || chunk.get(s) == '\t')) {
+                    s++;
+                }
+                while (e > s && (chunk.get(e - 1) == ' ' || chunk.get(e - 1) == '\t')) {
+                    e--;
+                }
+                bounds[2 * fields] = s;
+                bounds[2 * fields + 1] = e;
+                fields++;
+                fieldStart = i + 1;
+                blank &= i == end;
+            }
+            if (!blank) {
+                parser.parse(chunk, bounds, fields, offset + position);
+            }
+            position = newline + 1;
+        }
+    }
+
+    private static int lineEnd(ByteBuffer chunk, int position) {
+        int limit = chunk.limit();
+        while (position < limit && chunk.get(position) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    private static int parseInt(Path file, ByteBuffer chunk, int start, int end, long line) {
+        boolean negative = start < end && chunk.get(start) == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end) {
+            throw error(file, line, "missing number");
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = chunk.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw error(file, line, "invalid number " + string(chunk, start, end));
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw error(file, line, "number out of range " + string(chunk, start, end));
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw error(file, line, "number out of range " + string(chunk, start, end));
+        }
+        return (int) value;
+    }
+
+    private static String string(ByteBuffer chunk, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        chunk.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // UTF-8 bytes and offsets of ids, as in the dictionary sections of OffHeapProblem
+    private static ByteBuffer[] dictionary(Collection<String> ids) {
+        List<byte[]> encoded = ids.stream().map(id -> id.getBytes(StandardCharsets.UTF_8)).toList();
+        ByteBuffer bytes = OffHeapBuffers.allocate(encoded.stream().mapToLong(b -> b.length).sum());
+        ByteBuffer offsets = OffHeapBuffers.allocate((long) (encoded.size() + 1) * Integer.BYTES);
+        for (int i = 0; i < encoded.size(); i++) {
+            bytes.put(encoded.get(i));
+            offsets.putInt((i + 1) * Integer.BYTES, bytes.position());
+        }
+        return new ByteBuffer[]{bytes.clear(), offsets};
+    }
+
+    private static IllegalArgumentException error(Path file, long offset, String message) {
+        return new IllegalArgumentException(file + " at byte " + offset + ": " + message);
+    }
+}
@@ -0,0 +1,31 @@
+package org.acme.opt.offheap;
+
+import java.nio.ByteBuffer;
+
+// Growable byte array backed by direct memory, used for the UTF-8 id dictionaries.
+final class DirectByteArray {
+    private ByteBuffer buffer;
+
+    DirectByteArray(int initialCapacity) {
+        buffer = OffHeapBuffers.allocate(Math.max(16, initialCapacity));
+    }
+
+    void add(byte[] bytes) {
+        if (buffer.remaining() < bytes.length) {
+            long newCapacity = Math.max((long) buffer.position() + bytes.length, (long) buffer.capacity() * 2);
+            ByteBuffer grown = OffHeapBuffers.allocate(Math.min(Integer.MAX_VALUE, newCapacity));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+        buffer.put(bytes);
+    }
+
+    int size() {
+        return buffer.position();
+    }
+
+    ByteBuffer seal() {
+        return OffHeapBuffers.slice(buffer, 0, buffer.position());
+    }
+}
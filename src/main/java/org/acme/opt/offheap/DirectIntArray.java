@@ -0,0 +1,56 @@
+package org.acme.opt.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Growable int array backed by direct memory, used while a problem is being assembled.
+final class DirectIntArray {
+    private static final int MAX_INTS = Integer.MAX_VALUE / Integer.BYTES;
+
+    private ByteBuffer buffer;
+    private int size;
+
+    DirectIntArray(int initialCapacity) {
+        buffer = OffHeapBuffers.allocate((long) Math.max(1, initialCapacity) * Integer.BYTES);
+    }
+
+    void add(int value) {
+        ensureCapacity(size + 1);
+        buffer.putInt(size * Integer.BYTES, value);
+        size++;
+    }
+
+    int get(int index) {
+        return buffer.getInt(index * Integer.BYTES);
+    }
+
+    void set(int index, int value) {
+        buffer.putInt(index * Integer.BYTES, value);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Returns a buffer holding exactly the written ints; the array must not be used afterwards.
+    ByteBuffer seal() {
+        return OffHeapBuffers.slice(buffer, 0, (long) size * Integer.BYTES);
+    }
+
+    private void ensureCapacity(int required) {
+        int capacity = buffer.capacity() / Integer.BYTES;
+        if (required <= capacity) {
+            return;
+        }
+        if (required > MAX_INTS) {
+            throw new IllegalStateException("Off-heap section exceeds " + MAX_INTS + " entries");
+        }
+        int newCapacity = (int) Math.min(MAX_INTS, Math.max(required, (long) capacity * 2));
+        ByteBuffer grown = ByteBuffer.allocateDirect(newCapacity * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer old = buffer.duplicate();
+        old.position(0).limit(size * Integer.BYTES);
+        grown.put(old);
+        grown.clear();
+        buffer = grown;
+    }
+}
@@ -0,0 +1,79 @@
+package org.acme.opt.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Open-addressing hash table from UTF-8 ids to their index, in direct memory. Ids are compared with the dictionary
+// section they were indexed from, so no id is ever decoded into a String. Lookups are safe from any thread.
+final class IdIndex {
+    private final ByteBuffer ids;
+    private final ByteBuffer offsets;
+    // Index + 1 of the id in each slot, 0 when the slot is empty
+    private final ByteBuffer slots;
+    private final int mask;
+
+    // Indexes the ids 0..count-1 of a dictionary laid out like OffHeapProblem's; duplicate ids are rejected.
+    IdIndex(ByteBuffer ids, ByteBuffer offsets, int count, String kind) {
+        this.ids = ids;
+        this.offsets = offsets;
+        long capacity = 2;
+        while (capacity < 2L * count) {
+            capacity <<= 1;
+        }
+        this.slots = OffHeapBuffers.allocate(capacity * Integer.BYTES);
+        this.mask = (int) capacity - 1;
+        for (int i = 0; i < count; i++) {
+            int start = offsets.getInt(i * Integer.BYTES);
+            int end = offsets.getInt((i + 1) * Integer.BYTES);
+            int slot = hash(ids, start, end) & mask;
+            int existing;
+            while ((existing = slots.getInt(slot * Integer.BYTES)) != 0) {
+                if (matches(existing - 1, ids, start, end)) {
+                    byte[] id = new byte[end - start];
+                    ids.get(start, id);
+                    throw new IllegalArgumentException("Duplicate " + kind + " id " + new String(id, StandardCharsets.UTF_8));
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots.putInt(slot * Integer.BYTES, i + 1);
+        }
+    }
+
+    // Index of the id held in source[start, end), or -1
+    int find(ByteBuffer source, int start, int end) {
+        int slot = hash(source, start, end) & mask;
+        int existing;
+        while ((existing = slots.getInt(slot * Integer.BYTES)) != 0) {
+            if (matches(existing - 1, source, start, end)) {
+                return existing - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean matches(int index, ByteBuffer source, int start, int end) {
+        int offset = offsets.getInt(index * Integer.BYTES);
+        if (offsets.getInt((index + 1) * Integer.BYTES) - offset != end - start) {
+            return false;
+        }
+        for (int i = 0; i < end - start; i++) {
+            if (ids.get(offset + i) != source.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a with a final mix, so that the low bits used for the slot depend on every byte
+    private static int hash(ByteBuffer bytes, int start, int end) {
+        int h = 0x811c9dc5;
+        for (int i = start; i < end; i++) {
+            h = (h ^ bytes.get(i)) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+}
@@ -0,0 +1,168 @@
+package org.acme.opt.offheap;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Allocation result stored outside the Java heap, aligned with the CSR layout of an {@link OffHeapProblem}:
+ * allocated(k) is the amount granted for requirement entry k, completion(p) the completion percentage of project p.
+ * <p>
+ * Layout (little-endian): an 8 byte header {@code [P, nnz]} followed by allocated[nnz] and completion[P] (doubles).
+ */
+public final class OffHeapAllocation {
+    static final int HEADER_BYTES = 8;
+
+    private final int numProjects;
+    private final int nonZeros;
+    private final ByteBuffer allocated;
+    private final ByteBuffer completion;
+
+    private OffHeapAllocation(int numProjects, int nonZeros, ByteBuffer allocated, ByteBuffer completion) {
+        this.numProjects = numProjects;
+        this.nonZeros = nonZeros;
+        this.allocated = allocated;
+        this.completion = completion;
+    }
+
+    public static OffHeapAllocation allocate(OffHeapProblem problem) {
+        return new OffHeapAllocation(problem.numProjects(), problem.nonZeros(),
+                OffHeapBuffers.allocate((long) problem.nonZeros() * Integer.BYTES),
+                OffHeapBuffers.allocate((long) problem.numProjects() * Double.BYTES));
+    }
+
+    // Creates a result store that spills straight to a memory-mapped file instead of direct memory.
+    public static OffHeapAllocation create(OffHeapProblem problem, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = OffHeapBuffers.allocate(HEADER_BYTES);
+            header.putInt(problem.numProjects()).putInt(problem.nonZeros());
+            OffHeapBuffers.write(channel, header, 0);
+            return mapSections(channel, FileChannel.MapMode.READ_WRITE, 0, problem.numProjects(), problem.nonZeros());
+        }
+    }
+
+    public static OffHeapAllocation map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return map(channel, 0);
+        }
+    }
+
+    public static OffHeapAllocation map(FileChannel channel, long position) throws IOException {
+        ByteBuffer header = OffHeapBuffers.map(channel, FileChannel.MapMode.READ_ONLY, position, HEADER_BYTES);
+        return mapSections(channel, FileChannel.MapMode.READ_ONLY, position, header.getInt(0), header.getInt(4));
+    }
+
+    private static OffHeapAllocation mapSections(FileChannel channel, FileChannel.MapMode mode, long position,
+                                                 int numProjects, int nonZeros) throws IOException {
+        long allocatedBytes = (long) nonZeros * Integer.BYTES;
+        long completionBytes = (long) numProjects * Double.BYTES;
+        ByteBuffer allocated = OffHeapBuffers.map(channel, mode, position + HEADER_BYTES, allocatedBytes);
+        ByteBuffer completion = OffHeapBuffers.map(channel, mode, position + HEADER_BYTES + allocatedBytes, completionBytes);
+        return new OffHeapAllocation(numProjects, nonZeros, allocated, completion);
+    }
+
+    public int numProjects() {
+        return numProjects;
+    }
+
+    public int nonZeros() {
+        return nonZeros;
+    }
+
+    public int allocated(int entry) {
+        return allocated.getInt(entry * Integer.BYTES);
+    }
+
+    public void setAllocated(int entry, int amount) {
+        allocated.putInt(entry * Integer.BYTES, amount);
+    }
+
+    public double completion(int project) {
+        return completion.getDouble(project * Double.BYTES);
+    }
+
+    public void setCompletion(int project, double value) {
+        completion.putDouble(project * Double.BYTES, value);
+    }
+
+    public long byteSize() {
+        return HEADER_BYTES + (long) allocated.capacity() + completion.capacity();
+    }
+
+    public void writeTo(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeTo(channel, 0);
+        }
+    }
+
+    public long writeTo(FileChannel channel, long position) throws IOException {
+        ByteBuffer header = OffHeapBuffers.allocate(HEADER_BYTES);
+        header.putInt(numProjects).putInt(nonZeros);
+        position = OffHeapBuffers.write(channel, header, position);
+        position = OffHeapBuffers.write(channel, allocated, position);
+        return OffHeapBuffers.write(channel, completion, position);
+    }
+
+    // Converts a heap result (e.g. from the LP solver) into a store aligned with the given problem.
+    public static OffHeapAllocation fromResult(OffHeapProblem problem, Map<SolverProject, List<SolverResource>> result) {
+        return fromResult(problem, result, allocate(problem));
+    }
+
+    // Same, into an empty store aligned with the problem, e.g. one created on a file.
+    public static OffHeapAllocation fromResult(OffHeapProblem problem, Map<SolverProject, List<SolverResource>> result,
+                                               OffHeapAllocation allocation) {
+        Map<String, Integer> projectIndex = new HashMap<>();
+        for (int p = 0; p < problem.numProjects(); p++) {
+            projectIndex.put(problem.projectId(p), p);
+        }
+
+        result.forEach((project, resources) -> {
+            Integer p = projectIndex.get(project.getId());
+            if (p == null) {
+                return;
+            }
+            Map<String, Integer> assigned = new HashMap<>();
+            resources.forEach(r -> assigned.merge(r.getId(), r.getAvailableCapacity(), Integer::sum));
+            for (int k = problem.rowStart(p), end = problem.rowEnd(p); k < end; k++) {
+                allocation.setAllocated(k, assigned.getOrDefault(problem.resourceId(problem.column(k)), 0));
+            }
+            allocation.setCompletion(p, project.getCompletionRate().isEmpty() ? 0 : Double.parseDouble(project.getCompletionRate()));
+        });
+        return allocation;
+    }
+
+    /**
+     * Materializes the result in the shape returned by {@link org.acme.opt.solvers.BaseSolver#solve()}.
+     * Only meant for instances small enough to be mapped to a gRPC response.
+     */
+    public Map<SolverProject, List<SolverResource>> toResult(OffHeapProblem problem) {
+        Map<SolverProject, List<SolverResource>> result = new HashMap<>();
+        for (int p = 0; p < problem.numProjects(); p++) {
+            List<SolverResource> assigned = new ArrayList<>();
+            for (int k = problem.rowStart(p), end = problem.rowEnd(p); k < end; k++) {
+                if (allocated(k) > 0) {
+                    int r = problem.column(k);
+                    String resourceId = problem.resourceId(r);
+                    assigned.add(new SolverResource(resourceId, resourceId, allocated(k), problem.cost(r)));
+                }
+            }
+            if (!assigned.isEmpty()) {
+                SolverProject project = problem.toSolverProject(p);
+                project.setCompletionRate(String.valueOf(completion(p)));
+                result.put(project, assigned);
+            }
+        }
+        return result;
+    }
+}
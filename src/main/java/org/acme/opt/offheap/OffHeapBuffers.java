@@ -0,0 +1,44 @@
+package org.acme.opt.offheap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+// Small helpers shared by the off-heap stores. Every buffer is little-endian so that files are portable.
+final class OffHeapBuffers {
+
+    private OffHeapBuffers() {
+    }
+
+    static ByteBuffer allocate(long bytes) {
+        return ByteBuffer.allocateDirect(checkedSize(bytes)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static ByteBuffer slice(ByteBuffer buffer, long offset, long length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(checkedSize(offset)).limit(checkedSize(offset + length));
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static ByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long offset, long length) throws IOException {
+        return channel.map(mode, offset, checkedSize(length)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Writes the whole buffer at the given file position and returns the position right after it.
+    static long write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        ByteBuffer source = buffer.duplicate();
+        source.clear();
+        while (source.hasRemaining()) {
+            position += channel.write(source, position);
+        }
+        return position;
+    }
+
+    static int checkedSize(long bytes) {
+        if (bytes < 0 || bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Off-heap section of " + bytes + " bytes exceeds the 2 GiB buffer limit");
+        }
+        return (int) bytes;
+    }
+}
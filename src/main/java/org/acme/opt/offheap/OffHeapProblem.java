@@ -0,0 +1,313 @@
+package org.acme.opt.offheap;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Allocation problem stored outside the Java heap in compressed sparse row (CSR) form.
+ * <p>
+ * Resources are indexed 0..R-1 (duplicate ids are merged by summing capacity, as both solvers do), projects
+ * 0..P-1, and the requirements of project p are the entries rowStart(p)..rowEnd(p)-1 of the column/amount arrays.
+ * Requirements on unknown resource ids get a zero-capacity resource so that completion still accounts for them.
+ * <p>
+ * Layout (little-endian): a 32 byte header {@code [R, P, nnz, 0, resourceIdBytes(long), projectIdBytes(long)]}
+ * followed by capacities[R], costs[R], priorities[P], rowOffsets[P+1], columns[nnz], amounts[nnz],
+ * resourceIdOffsets[R+1], projectIdOffsets[P+1] and the two UTF-8 id dictionaries.
+ */
+public final class OffHeapProblem {
+    static final int HEADER_BYTES = 32;
+
+    private final int numResources;
+    private final int numProjects;
+    private final int nonZeros;
+
+    private final ByteBuffer capacities;
+    private final ByteBuffer costs;
+    private final ByteBuffer priorities;
+    private final ByteBuffer rowOffsets;
+    private final ByteBuffer columns;
+    private final ByteBuffer amounts;
+    private final ByteBuffer resourceIdOffsets;
+    private final ByteBuffer projectIdOffsets;
+    private final ByteBuffer resourceIds;
+    private final ByteBuffer projectIds;
+
+    OffHeapProblem(int numResources, int numProjects, int nonZeros, ByteBuffer[] sections) {
+        this.numResources = numResources;
+        this.numProjects = numProjects;
+        this.nonZeros = nonZeros;
+        this.capacities = sections[0];
+        this.costs = sections[1];
+        this.priorities = sections[2];
+        this.rowOffsets = sections[3];
+        this.columns = sections[4];
+        this.amounts = sections[5];
+        this.resourceIdOffsets = sections[6];
+        this.projectIdOffsets = sections[7];
+        this.resourceIds = sections[8];
+        this.projectIds = sections[9];
+    }
+
+    public static OffHeapProblem from(List<SolverResource> resources, List<SolverProject> projects) {
+        Builder builder = new Builder().resources(resources);
+        projects.forEach(builder::addProject);
+        return builder.build();
+    }
+
+    public int numResources() {
+        return numResources;
+    }
+
+    public int numProjects() {
+        return numProjects;
+    }
+
+    public int nonZeros() {
+        return nonZeros;
+    }
+
+    public int capacity(int resource) {
+        return capacities.getInt(resource * Integer.BYTES);
+    }
+
+    public int cost(int resource) {
+        return costs.getInt(resource * Integer.BYTES);
+    }
+
+    public int priority(int project) {
+        return priorities.getInt(project * Integer.BYTES);
+    }
+
+    public int rowStart(int project) {
+        return rowOffsets.getInt(project * Integer.BYTES);
+    }
+
+    public int rowEnd(int project) {
+        return rowOffsets.getInt((project + 1) * Integer.BYTES);
+    }
+
+    public int column(int entry) {
+        return columns.getInt(entry * Integer.BYTES);
+    }
+
+    public int amount(int entry) {
+        return amounts.getInt(entry * Integer.BYTES);
+    }
+
+    public String resourceId(int resource) {
+        return readString(resourceIds, resourceIdOffsets, resource);
+    }
+
+    public String projectId(int project) {
+        return readString(projectIds, projectIdOffsets, project);
+    }
+
+    // Total requested amount of a project, used both for ordering and for completion.
+    public long projectSize(int project) {
+        long size = 0;
+        for (int k = rowStart(project), end = rowEnd(project); k < end; k++) {
+            size += amount(k);
+        }
+        return size;
+    }
+
+    // Materializes a single project on the heap, e.g. to hand a slice of the problem to the LP solver.
+    public SolverProject toSolverProject(int project) {
+        Map<String, Integer> requirements = new HashMap<>();
+        for (int k = rowStart(project), end = rowEnd(project); k < end; k++) {
+            requirements.put(resourceId(column(k)), amount(k));
+        }
+        String id = projectId(project);
+        return new SolverProject("", id, id, requirements, priority(project));
+    }
+
+    public List<SolverResource> toSolverResources() {
+        List<SolverResource> resources = new ArrayList<>(numResources);
+        for (int r = 0; r < numResources; r++) {
+            String id = resourceId(r);
+            resources.add(new SolverResource(id, id, capacity(r), cost(r)));
+        }
+        return resources;
+    }
+
+    public List<SolverProject> toSolverProjects() {
+        List<SolverProject> projects = new ArrayList<>(numProjects);
+        for (int p = 0; p < numProjects; p++) {
+            projects.add(toSolverProject(p));
+        }
+        return projects;
+    }
+
+    // Bytes needed to spill this problem, header included.
+    public long byteSize() {
+        long size = HEADER_BYTES;
+        for (ByteBuffer section : sections()) {
+            size += section.capacity();
+        }
+        return size;
+    }
+
+    public void writeTo(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeTo(channel, 0);
+        }
+    }
+
+    // Writes the problem at the given position and returns the position right after it.
+    public long writeTo(FileChannel channel, long position) throws IOException {
+        ByteBuffer header = OffHeapBuffers.allocate(HEADER_BYTES);
+        header.putInt(numResources).putInt(numProjects).putInt(nonZeros).putInt(0)
+                .putLong(resourceIds.capacity()).putLong(projectIds.capacity());
+        position = OffHeapBuffers.write(channel, header, position);
+        for (ByteBuffer section : sections()) {
+            position = OffHeapBuffers.write(channel, section, position);
+        }
+        return position;
+    }
+
+    public static OffHeapProblem map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // Mappings stay valid after the channel is closed.
+            return map(channel, 0);
+        }
+    }
+
+    // Maps a problem previously written with writeTo(FileChannel, long); nothing is copied onto the heap.
+    public static OffHeapProblem map(FileChannel channel, long position) throws IOException {
+        ByteBuffer header = OffHeapBuffers.map(channel, FileChannel.MapMode.READ_ONLY, position, HEADER_BYTES);
+        int numResources = header.getInt(0);
+        int numProjects = header.getInt(4);
+        int nonZeros = header.getInt(8);
+        long[] lengths = sectionLengths(numResources, numProjects, nonZeros, header.getLong(16), header.getLong(24));
+
+        ByteBuffer[] sections = new ByteBuffer[lengths.length];
+        long offset = position + HEADER_BYTES;
+        for (int i = 0; i < lengths.length; i++) {
+            sections[i] = OffHeapBuffers.map(channel, FileChannel.MapMode.READ_ONLY, offset, lengths[i]);
+            offset += lengths[i];
+        }
+        return new OffHeapProblem(numResources, numProjects, nonZeros, sections);
+    }
+
+    private ByteBuffer[] sections() {
+        return new ByteBuffer[]{capacities, costs, priorities, rowOffsets, columns, amounts,
+                resourceIdOffsets, projectIdOffsets, resourceIds, projectIds};
+    }
+
+    private static long[] sectionLengths(int numResources, int numProjects, int nonZeros,
+                                         long resourceIdBytes, long projectIdBytes) {
+        return new long[]{
+                (long) numResources * Integer.BYTES,
+                (long) numResources * Integer.BYTES,
+                (long) numProjects * Integer.BYTES,
+                (long) (numProjects + 1) * Integer.BYTES,
+                (long) nonZeros * Integer.BYTES,
+                (long) nonZeros * Integer.BYTES,
+                (long) (numResources + 1) * Integer.BYTES,
+                (long) (numProjects + 1) * Integer.BYTES,
+                resourceIdBytes,
+                projectIdBytes
+        };
+    }
+
+    private static String readString(ByteBuffer bytes, ByteBuffer offsets, int index) {
+        int start = offsets.getInt(index * Integer.BYTES);
+        int end = offsets.getInt((index + 1) * Integer.BYTES);
+        byte[] value = new byte[end - start];
+        bytes.get(start, value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Streaming builder: resources are registered first, then projects are appended one at a time so that
+     * callers never need the whole project list on the heap.
+     */
+    public static class Builder {
+        // Only the resource dictionary lives on the heap; it is bounded by the number of distinct resource ids.
+        private final Map<String, Integer> resourceIndex = new HashMap<>();
+        private final DirectIntArray capacities = new DirectIntArray(1024);
+        private final DirectIntArray costs = new DirectIntArray(1024);
+        private final DirectIntArray resourceIdOffsets = new DirectIntArray(1024);
+        private final DirectByteArray resourceIds = new DirectByteArray(16 * 1024);
+
+        private final DirectIntArray priorities = new DirectIntArray(1024);
+        private final DirectIntArray rowOffsets = new DirectIntArray(1024);
+        private final DirectIntArray columns = new DirectIntArray(16 * 1024);
+        private final DirectIntArray amounts = new DirectIntArray(16 * 1024);
+        private final DirectIntArray projectIdOffsets = new DirectIntArray(1024);
+        private final DirectByteArray projectIds = new DirectByteArray(16 * 1024);
+
+        public Builder() {
+            resourceIdOffsets.add(0);
+            rowOffsets.add(0);
+            projectIdOffsets.add(0);
+        }
+
+        public Builder resources(List<SolverResource> resources) {
+            resources.forEach(r -> addResource(r.getId(), r.getAvailableCapacity(), r.getCost()));
+            return this;
+        }
+
+        // Duplicate ids are merged by summing capacity; the first cost seen is kept.
+        public Builder addResource(String id, int capacity, int cost) {
+            Integer index = resourceIndex.get(id);
+            if (index != null) {
+                capacities.set(index, capacities.get(index) + capacity);
+                return this;
+            }
+            resourceIndex.put(id, capacities.size());
+            capacities.add(capacity);
+            costs.add(cost);
+            resourceIds.add(id.getBytes(StandardCharsets.UTF_8));
+            resourceIdOffsets.add(resourceIds.size());
+            return this;
+        }
+
+        public Builder addProject(SolverProject project) {
+            return addProject(project.getId(), project.getPriority(), project.getRequirements());
+        }
+
+        public Builder addProject(String id, int priority, Map<String, Integer> requirements) {
+            for (Map.Entry<String, Integer> requirement : requirements.entrySet()) {
+                addRequirement(requirement.getKey(), requirement.getValue());
+            }
+            return endProject(id, priority);
+        }
+
+        // Low-level variant for parsers: add the requirements of the current project, then close it.
+        public Builder addRequirement(String resourceId, int amount) {
+            if (!resourceIndex.containsKey(resourceId)) {
+                addResource(resourceId, 0, 0);
+            }
+            columns.add(resourceIndex.get(resourceId));
+            amounts.add(amount);
+            return this;
+        }
+
+        public Builder endProject(String id, int priority) {
+            priorities.add(priority);
+            rowOffsets.add(columns.size());
+            projectIds.add(id.getBytes(StandardCharsets.UTF_8));
+            projectIdOffsets.add(projectIds.size());
+            return this;
+        }
+
+        public OffHeapProblem build() {
+            ByteBuffer[] sections = {
+                    capacities.seal(), costs.seal(), priorities.seal(), rowOffsets.seal(), columns.seal(),
+                    amounts.seal(), resourceIdOffsets.seal(), projectIdOffsets.seal(), resourceIds.seal(),
+                    projectIds.seal()
+            };
+            return new OffHeapProblem(capacities.size(), priorities.size(), columns.size(), sections);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package org.acme.opt.online;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.opt.solvers.BaseSolver;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import resourceallocation.*;
+
+import java.util.*;
+
+/**
+ * Stateful greedy allocation, updated event by event.
+ * <p>
+ * Projects are kept in a fixed order (arrival, or priority then arrival with
+ * {@code allocation.online.priority-first}), and every resource is a prefix fill in that order, exactly as the
+ * greedy would compute it from scratch: the projects before some point get their whole requirement, one may get part
+ * of it, and the later ones get nothing. Each resource keeps its entries that hold units and its entries that are
+ * short, both ordered. An event only rebalances the resources it touches: free units go to the earliest short entry,
+ * and units move from the latest holder to an earlier short entry. A project arriving, leaving or a capacity change
+ * therefore costs O(k log n) for the k entries that actually change.
+ */
+@ApplicationScoped
+public class OnlineAllocationEngine {
+
+    @ConfigProperty(name = "allocation.online.priority-first", defaultValue = "false")
+    boolean priorityFirst;
+
+    private record Key(int rank, long sequence) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byRank = Integer.compare(rank, other.rank);
+            return byRank != 0 ? byRank : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static final class ProjectState {
+        final String id;
+        final Key key;
+        final List<Entry> entries = new ArrayList<>();
+        long size;
+        long allocated;
+
+        ProjectState(String id, Key key) {
+            this.id = id;
+            this.key = key;
+        }
+
+        double completion() {
+            return BaseSolver.completion(allocated, size);
+        }
+    }
+
+    private static final class ResourceState {
+        final String id;
+        int capacity;
+        int used;
+        final TreeMap<Key, Entry> holders = new TreeMap<>();
+        final TreeMap<Key, Entry> shorts = new TreeMap<>();
+
+        ResourceState(String id, int capacity) {
+            this.id = id;
+            this.capacity = capacity;
+        }
+    }
+
+    private static final class Entry {
+        final ProjectState project;
+        final ResourceState resource;
+        final int requirement;
+        int allocated;
+
+        Entry(ProjectState project, ResourceState resource, int requirement) {
+            this.project = project;
+            this.resource = resource;
+            this.requirement = requirement;
+        }
+    }
+
+    private final Map<String, ProjectState> projects = new HashMap<>();
+    private final Map<String, ResourceState> resources = new HashMap<>();
+    private long nextSequence;
+
+    // Amounts changed by the event being applied, per project and resource
+    private final Map<ProjectState, Map<String, Integer>> changed = new LinkedHashMap<>();
+
+    public synchronized AllocationUpdate apply(AllocationEvent event) {
+        long start = System.nanoTime();
+        changed.clear();
+        AllocationUpdate.Builder update = AllocationUpdate.newBuilder().setEventId(event.getEventId());
+        try {
+            switch (event.getEventCase()) {
+                case PROJECT_ADDED -> addProject(event.getProjectAdded());
+                case PROJECT_REMOVED -> removeProject(event.getProjectRemoved(), update);
+                case RESOURCE_UPSERTED -> upsertResource(event.getResourceUpserted());
+                case SNAPSHOT -> projects.values().stream()
+                        .sorted(Comparator.comparing((ProjectState p) -> p.key))
+                        .forEach(p -> update.addChanges(fullState(p)));
+                default -> throw new IllegalArgumentException("Event without payload");
+            }
+        } catch (IllegalArgumentException e) {
+            update.setError(e.getMessage());
+        }
+        changed.forEach((project, amounts) -> update.addChanges(ProjectAllocationChange.newBuilder()
+                .setProjectId(project.id)
+                .putAllAllocated(amounts)
+                .setCompletion(project.completion())));
+        return update.setHandlingNanos(System.nanoTime() - start).build();
+    }
+
+    private void addProject(Project message) {
+        if (projects.containsKey(message.getId())) {
+            throw new IllegalArgumentException("Project " + message.getId() + " already allocated");
+        }
+        ProjectState project = new ProjectState(message.getId(),
+                new Key(priorityFirst ? -message.getPriority() : 0, nextSequence++));
+        projects.put(project.id, project);
+        // Requirements on resources not announced yet wait on a zero-capacity resource
+        for (Map.Entry<String, Integer> requirement : new TreeMap<>(message.getRequirementsMap()).entrySet()) {
+            ResourceState resource = resources.computeIfAbsent(requirement.getKey(), id -> new ResourceState(id, 0));
+            Entry entry = new Entry(project, resource, Math.max(0, requirement.getValue()));
+            project.entries.add(entry);
+            project.size += entry.requirement;
+            if (entry.requirement > 0) {
+                resource.shorts.put(project.key, entry);
+                rebalance(resource);
+            }
+        }
+        changed.putIfAbsent(project, new TreeMap<>());
+    }
+
+    private void removeProject(String projectId, AllocationUpdate.Builder update) {
+        ProjectState project = projects.remove(projectId);
+        if (project == null) {
+            throw new IllegalArgumentException("Unknown project " + projectId);
+        }
+        for (Entry entry : project.entries) {
+            take(entry, entry.allocated);
+            entry.resource.shorts.remove(project.key);
+            rebalance(entry.resource);
+        }
+        changed.remove(project);
+        update.addChanges(ProjectAllocationChange.newBuilder().setProjectId(projectId).setRemoved(true));
+    }
+
+    private void upsertResource(Resource message) {
+        ResourceState resource = resources.computeIfAbsent(message.getId(), id -> new ResourceState(id, 0));
+        resource.capacity = Math.max(0, message.getCapacity());
+        rebalance(resource);
+    }
+
+    // Restores the prefix fill of one resource after its capacity or its entries changed.
+    private void rebalance(ResourceState resource) {
+        while (resource.used > resource.capacity) {
+            Entry latest = resource.holders.lastEntry().getValue();
+            take(latest, Math.min(latest.allocated, resource.used - resource.capacity));
+        }
+        while (!resource.shorts.isEmpty()) {
+            Entry earliest = resource.shorts.firstEntry().getValue();
+            int missing = earliest.requirement - earliest.allocated;
+            int free = resource.capacity - resource.used;
+            if (free > 0) {
+                give(earliest, Math.min(free, missing));
+                continue;
+            }
+            Map.Entry<Key, Entry> latest = resource.holders.lastEntry();
+            if (latest == null || latest.getKey().compareTo(earliest.project.key) <= 0) {
+                break;
+            }
+            int moved = Math.min(latest.getValue().allocated, missing);
+            take(latest.getValue(), moved);
+            give(earliest, moved);
+        }
+    }
+
+    private void give(Entry entry, int amount) {
+        if (amount > 0) {
+            setAllocated(entry, entry.allocated + amount);
+        }
+    }
+
+    private void take(Entry entry, int amount) {
+        if (amount > 0) {
+            setAllocated(entry, entry.allocated - amount);
+        }
+    }
+
+    private void setAllocated(Entry entry, int allocated) {
+        ResourceState resource = entry.resource;
+        Key key = entry.project.key;
+        resource.used += allocated - entry.allocated;
+        entry.project.allocated += allocated - entry.allocated;
+        entry.allocated = allocated;
+        if (allocated > 0) {
+            resource.holders.put(key, entry);
+        } else {
+            resource.holders.remove(key);
+        }
+        if (allocated < entry.requirement) {
+            resource.shorts.put(key, entry);
+        } else {
+            resource.shorts.remove(key);
+        }
+        changed.computeIfAbsent(entry.project, p -> new TreeMap<>()).put(resource.id, allocated);
+    }
+
+    private ProjectAllocationChange fullState(ProjectState project) {
+        ProjectAllocationChange.Builder change = ProjectAllocationChange.newBuilder()
+                .setProjectId(project.id)
+                .setCompletion(project.completion());
+        project.entries.forEach(e -> change.putAllocated(e.resource.id, e.allocated));
+        return change.build();
+    }
+}
@@ -0,0 +1,59 @@
+package org.acme.opt.presolve;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.solvers.BaseSolver;
+
+import java.util.*;
+
+// Reduced problem produced by the Presolver, plus what is needed to map a reduced solution back.
+@AllArgsConstructor
+@Getter
+public class PresolvedProblem {
+    private final List<SolverProject> originalProjects;
+    // Original resources merged by id
+    private final Map<String, SolverResource> mergedResources;
+    // Resources whose total demand fits: every requirement on them is fully allocated
+    private final Set<String> fixedResources;
+    private final List<SolverResource> resources;
+    private final List<SolverProject> projects;
+    // Reduced project -> original project
+    private final Map<SolverProject, SolverProject> originals;
+
+    /**
+     * Maps a solution of the reduced problem back onto the original projects and ids, adds the fixed allocations and
+     * sets the completion rate of every allocated project, computed on its original requirements.
+     */
+    public Map<SolverProject, List<SolverResource>> postsolve(Map<SolverProject, List<SolverResource>> reducedResult, BaseSolver solver) {
+        Map<SolverProject, Map<String, Integer>> amounts = new IdentityHashMap<>();
+        reducedResult.forEach((reduced, assigned) -> {
+            Map<String, Integer> projectAmounts = amounts.computeIfAbsent(originals.get(reduced), p -> new TreeMap<>());
+            assigned.forEach(r -> projectAmounts.merge(r.getId(), r.getAvailableCapacity(), Integer::sum));
+        });
+
+        Map<SolverProject, List<SolverResource>> result = new HashMap<>();
+        for (SolverProject project : originalProjects) {
+            Map<String, Integer> projectAmounts = amounts.getOrDefault(project, new TreeMap<>());
+            project.getRequirements().forEach((resourceId, amount) -> {
+                if (amount > 0 && fixedResources.contains(resourceId)) {
+                    projectAmounts.put(resourceId, amount);
+                }
+            });
+
+            List<SolverResource> assigned = new ArrayList<>();
+            projectAmounts.forEach((resourceId, amount) -> {
+                if (amount > 0) {
+                    SolverResource resource = mergedResources.get(resourceId);
+                    assigned.add(new SolverResource(resourceId, resource.getName(), amount, resource.getCost()));
+                }
+            });
+            if (!assigned.isEmpty()) {
+                project.setCompletionRate(String.valueOf(solver.calculateProjectCompletion(project, assigned)));
+                result.put(project, assigned);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+package org.acme.opt.presolve;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.jboss.logging.Logger;
+
+import java.util.*;
+
+/**
+ * Reductions that do not change the result of either solver, both of which are separable per resource:
+ * <ul>
+ *     <li>resources with the same id are merged (capacities summed, first name and cost kept);</li>
+ *     <li>requirements of 0 and requirements on unknown resource ids are dropped, as nothing can be allocated to them;</li>
+ *     <li>resources nobody requests are dropped;</li>
+ *     <li>resources whose total demand fits in their capacity are fixed: every project gets its full requirement;</li>
+ *     <li>projects left without requirements are dropped.</li>
+ * </ul>
+ * Dropped and fixed entries still count in the completion computed by {@link PresolvedProblem#postsolve}.
+ */
+public class Presolver {
+    private static final Logger LOG = Logger.getLogger(Presolver.class);
+
+    private Presolver() {
+    }
+
+    public static PresolvedProblem presolve(List<SolverResource> resources, List<SolverProject> projects) {
+        // Merge duplicate ids
+        Map<String, SolverResource> merged = new LinkedHashMap<>();
+        for (SolverResource resource : resources) {
+            merged.merge(resource.getId(), resource, (a, b) ->
+                    new SolverResource(a.getId(), a.getName(), a.getAvailableCapacity() + b.getAvailableCapacity(), a.getCost()));
+        }
+
+        // Total positive demand on every known resource
+        Map<String, Long> demand = new HashMap<>();
+        int requirements = 0;
+        for (SolverProject project : projects) {
+            for (Map.Entry<String, Integer> requirement : project.getRequirements().entrySet()) {
+                requirements++;
+                if (requirement.getValue() > 0 && merged.containsKey(requirement.getKey())) {
+                    demand.merge(requirement.getKey(), (long) requirement.getValue(), Long::sum);
+                }
+            }
+        }
+
+        Set<String> fixed = new HashSet<>();
+        List<SolverResource> reducedResources = new ArrayList<>();
+        for (SolverResource resource : merged.values()) {
+            long total = demand.getOrDefault(resource.getId(), 0L);
+            if (total == 0) {
+                continue;
+            }
+            if (total <= resource.getAvailableCapacity()) {
+                fixed.add(resource.getId());
+            } else {
+                reducedResources.add(resource);
+            }
+        }
+
+        Set<String> free = new HashSet<>();
+        reducedResources.forEach(r -> free.add(r.getId()));
+        List<SolverProject> reducedProjects = new ArrayList<>();
+        Map<SolverProject, SolverProject> originals = new IdentityHashMap<>();
+        int reducedRequirements = 0;
+        for (SolverProject project : projects) {
+            Map<String, Integer> kept = new HashMap<>();
+            project.getRequirements().forEach((resourceId, amount) -> {
+                if (amount > 0 && free.contains(resourceId)) {
+                    kept.put(resourceId, amount);
+                }
+            });
+            if (!kept.isEmpty()) {
+                SolverProject reduced = new SolverProject(project.getCompletionRate(), project.getId(), project.getName(), kept, project.getPriority());
+                reducedProjects.add(reduced);
+                originals.put(reduced, project);
+                reducedRequirements += kept.size();
+            }
+        }
+
+        LOG.debugf("Presolve: resources %d -> %d (%d fixed), projects %d -> %d, requirements %d -> %d",
+                resources.size(), reducedResources.size(), fixed.size(), projects.size(), reducedProjects.size(),
+                requirements, reducedRequirements);
+
+        return new PresolvedProblem(projects, merged, fixed, reducedResources, reducedProjects, originals);
+    }
+}
@@ -0,0 +1,79 @@
+package org.acme.opt.presolve;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.SolverStrategy;
+import org.acme.opt.models.enums.GreedyOrder;
+import org.acme.opt.models.enums.GreedyStrategy;
+import org.acme.opt.solvers.BaseSolver;
+import org.acme.opt.solvers.GreedyAssignmentSolver;
+import org.acme.opt.solvers.LexicographicSolver;
+import org.acme.opt.solvers.MaximizeResourceUsage;
+import org.acme.opt.solvers.ParallelGreedySolver;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+// Presolves the problem, aggregates identical projects, runs the wrapped solver on the reduced problem and maps its
+// solution back.
+public class PresolvingSolver implements BaseSolver {
+    private final List<SolverResource> resources;
+    private final List<SolverProject> projects;
+    private final BiFunction<List<SolverResource>, List<SolverProject>, BaseSolver> solverFactory;
+    // The wrapped solver depends on project order: identical projects are only aggregated where they are consecutive
+    private final boolean orderDependent;
+
+    public PresolvingSolver(List<SolverResource> resources, List<SolverProject> projects,
+                            BiFunction<List<SolverResource>, List<SolverProject>, BaseSolver> solverFactory) {
+        this(resources, projects, solverFactory, true);
+    }
+
+    public PresolvingSolver(List<SolverResource> resources, List<SolverProject> projects,
+                            BiFunction<List<SolverResource>, List<SolverProject>, BaseSolver> solverFactory,
+                            boolean orderDependent) {
+        this.resources = resources;
+        this.projects = projects;
+        this.solverFactory = solverFactory;
+        this.orderDependent = orderDependent;
+    }
+
+    public static PresolvingSolver greedy(List<SolverResource> resources, List<SolverProject> projects, SolverStrategy strategy) {
+        return greedy(resources, projects, strategy, false);
+    }
+
+    // With parallel set, the reduced problem is solved by the ParallelGreedySolver, which gives the same result
+    public static PresolvingSolver greedy(List<SolverResource> resources, List<SolverProject> projects, SolverStrategy strategy,
+                                          boolean parallel) {
+        // Reduced projects are smaller, so the order is decided on the originals and the reduced greedy keeps it
+        List<SolverProject> ordered = parallel
+                ? List.of(ParallelGreedySolver.order(projects, strategy))
+                : projects.stream().sorted(GreedyAssignmentSolver.projectOrder(strategy)).toList();
+        SolverStrategy keepOrder = new SolverStrategy(GreedyStrategy.UNKNOWN, GreedyOrder.UNKNOWN);
+        return new PresolvingSolver(resources, ordered, parallel
+                ? (r, p) -> new ParallelGreedySolver(r, p, keepOrder)
+                : (r, p) -> new GreedyAssignmentSolver(r, p, keepOrder));
+    }
+
+    public static PresolvingSolver linearProgramming(List<SolverResource> resources, List<SolverProject> projects) {
+        return new PresolvingSolver(resources, projects, MaximizeResourceUsage::new, false);
+    }
+
+    public static PresolvingSolver lexicographic(List<SolverResource> resources, List<SolverProject> projects) {
+        return new PresolvingSolver(resources, projects, LexicographicSolver::new, false);
+    }
+
+    @Override
+    public Map<SolverProject, List<SolverResource>> solve() {
+        PresolvedProblem presolved = Presolver.presolve(resources, projects);
+        // Everything fixed or dropped: the solver (and the LP's native libraries) is not needed at all
+        if (presolved.getProjects().isEmpty()) {
+            return presolved.postsolve(new HashMap<>(), this);
+        }
+        SymmetryReducer symmetry = SymmetryReducer.reduce(presolved.getProjects(), orderDependent);
+        Map<SolverProject, List<SolverResource>> reducedResult =
+                solverFactory.apply(presolved.getResources(), symmetry.getProjects()).solve();
+        return presolved.postsolve(symmetry.disaggregate(reducedResult), this);
+    }
+}
@@ -0,0 +1,113 @@
+package org.acme.opt.presolve;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.jboss.logging.Logger;
+
+import java.util.*;
+
+/**
+ * Collapses projects with the same requirements and priority into one aggregate project requiring their sum, so the
+ * solvers work per distinct project shape instead of per project.
+ * <p>
+ * Both solvers value a unit the same for every member of a shape, so an aggregate's allocation is split back over its
+ * members in order, each filled before the next. For the LP any members may be aggregated. The greedy depends on the
+ * order of the projects, so only runs of consecutive members are: the split then gives each member exactly what the
+ * greedy would have.
+ */
+public class SymmetryReducer {
+    private static final Logger LOG = Logger.getLogger(SymmetryReducer.class);
+
+    private record Shape(Map<String, Integer> requirements, int priority) {
+    }
+
+    private final List<SolverProject> projects;
+    // Aggregate -> its members in order; projects without a twin are passed through and have no entry
+    private final Map<SolverProject, List<SolverProject>> members;
+
+    private SymmetryReducer(List<SolverProject> projects, Map<SolverProject, List<SolverProject>> members) {
+        this.projects = projects;
+        this.members = members;
+    }
+
+    // The projects to solve: aggregates and projects without a twin
+    public List<SolverProject> getProjects() {
+        return projects;
+    }
+
+    /**
+     * @param consecutiveOnly only aggregate members that follow each other, for solvers that depend on project order
+     */
+    public static SymmetryReducer reduce(List<SolverProject> projects, boolean consecutiveOnly) {
+        List<List<SolverProject>> groups = new ArrayList<>();
+        Map<Shape, List<SolverProject>> byShape = new HashMap<>();
+        Shape previous = null;
+        for (SolverProject project : projects) {
+            Shape shape = new Shape(project.getRequirements(), project.getPriority());
+            List<SolverProject> group = consecutiveOnly
+                    ? (shape.equals(previous) ? groups.get(groups.size() - 1) : null)
+                    : byShape.get(shape);
+            if (group == null) {
+                group = new ArrayList<>(1);
+                groups.add(group);
+                if (!consecutiveOnly) {
+                    byShape.put(shape, group);
+                }
+            }
+            group.add(project);
+            previous = shape;
+        }
+        if (groups.size() == projects.size()) {
+            return new SymmetryReducer(projects, Map.of());
+        }
+
+        List<SolverProject> reduced = new ArrayList<>(groups.size());
+        Map<SolverProject, List<SolverProject>> members = new IdentityHashMap<>();
+        for (List<SolverProject> group : groups) {
+            SolverProject first = group.get(0);
+            if (group.size() == 1) {
+                reduced.add(first);
+                continue;
+            }
+            Map<String, Integer> requirements = new HashMap<>();
+            first.getRequirements().forEach((resourceId, amount) ->
+                    requirements.put(resourceId, (int) Math.min(Integer.MAX_VALUE, (long) amount * group.size())));
+            SolverProject aggregate = new SolverProject(first.getCompletionRate(), first.getId(), first.getName(),
+                    requirements, first.getPriority());
+            reduced.add(aggregate);
+            members.put(aggregate, group);
+        }
+        LOG.debugf("Symmetry: projects %d -> %d shapes", projects.size(), reduced.size());
+        return new SymmetryReducer(reduced, members);
+    }
+
+    // Splits the allocation of every aggregate over its members, first member first
+    public Map<SolverProject, List<SolverResource>> disaggregate(Map<SolverProject, List<SolverResource>> result) {
+        if (members.isEmpty()) {
+            return result;
+        }
+        Map<SolverProject, List<SolverResource>> split = new HashMap<>();
+        result.forEach((project, assigned) -> {
+            List<SolverProject> group = members.get(project);
+            if (group == null) {
+                split.put(project, assigned);
+                return;
+            }
+            for (SolverResource resource : assigned) {
+                int remaining = resource.getAvailableCapacity();
+                for (SolverProject member : group) {
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    int amount = Math.min(remaining, member.getRequirements().getOrDefault(resource.getId(), 0));
+                    if (amount > 0) {
+                        split.computeIfAbsent(member, m -> new ArrayList<>())
+                                .add(new SolverResource(resource.getId(), resource.getName(), amount, resource.getCost()));
+                        remaining -= amount;
+                    }
+                }
+            }
+        });
+        return split;
+    }
+}
@@ -0,0 +1,75 @@
+package org.acme.opt.profiling;
+
+import jdk.jfr.*;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDK Flight Recorder event for one phase of an allocation request. Phases of the same request run on the same
+ * thread and nest (a native solve inside a solve), which is how a recording shows where a slow request spent its time.
+ * <p>
+ * While no recording enables the event, {@link #end} is a single check, and the problem dimensions are only counted
+ * for events that are actually committed.
+ */
+@Name("org.acme.opt.SolverPhase")
+@Label("Solver Phase")
+@Category({"Resource Allocation"})
+@Description("One phase of an allocation request, with the size of the problem it worked on")
+@StackTrace(false)
+public class SolverPhaseEvent extends Event {
+
+    public enum Phase { DECODE, SOLVE, MODEL_BUILD, NATIVE_SOLVE, COMPLETION, MAPPING, ENCODE }
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Engine")
+    @Description("Engine of the request, the solver class for phases inside a solver, or the response encoding")
+    String engine;
+
+    @Label("Projects")
+    int projects;
+
+    @Label("Resources")
+    int resources;
+
+    @Label("Requirements")
+    @Description("Project/resource requirement entries")
+    long requirements;
+
+    @Label("Status")
+    String status;
+
+    public static SolverPhaseEvent start(Phase phase, String engine) {
+        SolverPhaseEvent event = new SolverPhaseEvent();
+        event.phase = phase.name();
+        event.engine = engine;
+        event.begin();
+        return event;
+    }
+
+    public void end(List<SolverResource> resourceList, List<SolverProject> projectList, String status) {
+        end();
+        if (shouldCommit()) {
+            this.resources = resourceList.size();
+            this.projects = projectList.size();
+            this.requirements = projectList.stream().mapToLong(p -> p.getRequirements().size()).sum();
+            this.status = status;
+            commit();
+        }
+    }
+
+    // For phases that only see the allocation: its projects, and the entries allocated to them
+    public void end(Map<SolverProject, List<SolverResource>> allocation, String status) {
+        end();
+        if (shouldCommit()) {
+            this.projects = allocation.size();
+            this.requirements = allocation.values().stream().mapToLong(List::size).sum();
+            this.status = status;
+            commit();
+        }
+    }
+}
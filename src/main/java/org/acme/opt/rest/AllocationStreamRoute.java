@@ -0,0 +1,207 @@
+package org.acme.opt.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.acme.opt.models.SolveOptions;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.SolverStrategy;
+import org.acme.opt.models.enums.AllocationEngine;
+import org.acme.opt.models.enums.GreedyOrder;
+import org.acme.opt.models.enums.GreedyStrategy;
+import org.acme.opt.services.SolverFactory;
+import org.acme.opt.snapshot.SnapshotCapture;
+import org.acme.opt.solvers.GreedyAssignmentSolver;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP entry point for clients that cannot speak gRPC:
+ * {@code POST /allocations/stream?engine=GREEDY&criteria=PROJECT_SIZE&order=LARGEST_FIRST}, plus the optional
+ * {@code improvementTimeLimitMs} and {@code minCompletion} parameters of the gRPC request.
+ * <p>
+ * The body (NDJSON or JSON, see {@link ProblemStreamParser}) is parsed chunk by chunk on the event loop as it
+ * arrives. The solver then runs on a worker thread and the response is NDJSON: one {@code allocation} line per
+ * allocated project, then a {@code summary} line, or an {@code error} line. The plain greedy writes each project as
+ * soon as it is allocated; the other engines write their lines once the solve completes.
+ */
+@ApplicationScoped
+public class AllocationStreamRoute {
+    public static final String PATH = "/allocations/stream";
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    SolverFactory solverFactory;
+
+    @Inject
+    SnapshotCapture snapshotCapture;
+
+    void init(@Observes Router router) {
+        router.post(PATH).handler(this::handle);
+    }
+
+    private void handle(RoutingContext context) {
+        HttpServerRequest request = context.request();
+        HttpServerResponse response = context.response();
+
+        AllocationEngine engine;
+        SolveOptions options;
+        ProblemStreamParser parser;
+        try {
+            engine = AllocationEngine.valueOf(param(request, "engine", "GREEDY"));
+            SolverStrategy strategy = new SolverStrategy(
+                    GreedyStrategy.valueOf(param(request, "criteria", "UNKNOWN")),
+                    GreedyOrder.valueOf(param(request, "order", "UNKNOWN")));
+            options = new SolveOptions(strategy,
+                    Integer.parseInt(param(request, "improvementTimeLimitMs", "0")),
+                    Double.parseDouble(param(request, "minCompletion", "0")));
+            if (engine == AllocationEngine.PROJECT_SELECTION) {
+                SolverFactory.checkMinCompletion(options.minCompletion());
+            }
+            parser = new ProblemStreamParser(objectMapper);
+        } catch (IllegalArgumentException | IOException e) {
+            fail(response, "Invalid request: " + e.getMessage());
+            return;
+        }
+
+        // Request handlers all run on the same event loop
+        boolean[] failed = new boolean[1];
+        request.handler(buffer -> {
+            if (failed[0]) {
+                return;
+            }
+            try {
+                parser.feed(buffer.getBytes());
+            } catch (IOException | IllegalArgumentException e) {
+                failed[0] = true;
+                fail(response, "Invalid problem: " + e.getMessage());
+            }
+        });
+        request.endHandler(v -> {
+            if (failed[0]) {
+                return;
+            }
+            try {
+                parser.end();
+            } catch (IOException | IllegalArgumentException e) {
+                fail(response, "Invalid problem: " + e.getMessage());
+                return;
+            }
+            context.vertx().executeBlocking(() -> {
+                solve(engine, options, parser.getResources(), parser.getProjects(), response);
+                return null;
+            }, false);
+        });
+        request.resume();
+    }
+
+    private void solve(AllocationEngine engine, SolveOptions options, List<SolverResource> resources,
+                       List<SolverProject> projects, HttpServerResponse response) {
+        snapshotCapture.capture(engine, options.strategy(), resources, projects);
+        response.setChunked(true).putHeader(HttpHeaders.CONTENT_TYPE, NDJSON);
+        long start = System.currentTimeMillis();
+        try {
+            Map<SolverProject, List<SolverResource>> result;
+            if (engine == AllocationEngine.GREEDY && options.improvementTimeLimitMs() <= 0) {
+                // Presolve would hold every project back until postsolve, so the streaming greedy runs without it
+                result = new GreedyAssignmentSolver(resources, projects, options.strategy())
+                        .solve((project, assigned) -> write(response, allocationLine(project, assigned)));
+            } else {
+                result = solverFactory.create(engine, resources, projects, options).solve();
+                result.forEach((project, assigned) -> write(response, allocationLine(project, assigned)));
+            }
+
+            ObjectNode summary = objectMapper.createObjectNode()
+                    .put("type", "summary")
+                    .put("engine", engine.name())
+                    .put("projects", projects.size())
+                    .put("allocatedProjects", result.size())
+                    .put("allocatedUnits", result.values().stream().flatMap(List::stream).mapToLong(SolverResource::getAvailableCapacity).sum())
+                    .put("totalCapacity", resources.stream().mapToLong(SolverResource::getAvailableCapacity).sum())
+                    .put("elapsedMs", System.currentTimeMillis() - start);
+            write(response, summary);
+        } catch (RuntimeException e) {
+            System.err.println("Error solving streamed allocation: " + e.getMessage());
+            write(response, errorLine(e.getMessage()));
+        }
+        if (!response.closed()) {
+            response.end();
+        }
+    }
+
+    private ObjectNode allocationLine(SolverProject project, List<SolverResource> assigned) {
+        Map<String, Integer> amounts = new TreeMap<>();
+        assigned.forEach(r -> amounts.merge(r.getId(), r.getAvailableCapacity(), Integer::sum));
+        ObjectNode line = objectMapper.createObjectNode()
+                .put("type", "allocation")
+                .put("projectId", project.getId())
+                .put("completion", project.getCompletionRate() == null || project.getCompletionRate().isEmpty()
+                        ? 0 : Double.parseDouble(project.getCompletionRate()));
+        ObjectNode allocations = line.putObject("allocations");
+        amounts.forEach(allocations::put);
+        return line;
+    }
+
+    private ObjectNode errorLine(String message) {
+        return objectMapper.createObjectNode().put("type", "error").put("message", message);
+    }
+
+    // Called from the worker thread; waits for the client while the write queue is full.
+    private void write(HttpServerResponse response, ObjectNode line) {
+        if (response.closed()) {
+            return;
+        }
+        if (response.writeQueueFull()) {
+            CountDownLatch drained = new CountDownLatch(1);
+            response.drainHandler(v -> drained.countDown());
+            try {
+                // A client that disconnects never drains, so keep checking for it
+                while (response.writeQueueFull() && !response.closed()) {
+                    drained.await(100, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        response.write(toJson(line) + "\n");
+    }
+
+    private void fail(HttpServerResponse response, String message) {
+        if (!response.ended()) {
+            response.setStatusCode(400)
+                    .putHeader(HttpHeaders.CONTENT_TYPE, NDJSON)
+                    .end(toJson(errorLine(message)) + "\n");
+        }
+    }
+
+    private String toJson(ObjectNode node) {
+        try {
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String param(HttpServerRequest request, String name, String defaultValue) {
+        String value = request.getParam(name);
+        return value == null || value.isBlank() ? defaultValue : value.trim().toUpperCase();
+    }
+}
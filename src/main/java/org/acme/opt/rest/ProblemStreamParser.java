@@ -0,0 +1,147 @@
+package org.acme.opt.rest;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Incremental parser for allocation problems sent as NDJSON or as one JSON document, fed chunk by chunk as the
+ * request body arrives. Only the record being parsed is buffered, never the document.
+ * <p>
+ * Accepted input, possibly mixed in one body:
+ * <pre>
+ * {"type":"resource","id":"r1","name":"Welders","capacity":10,"cost":3}
+ * {"type":"project","id":"p1","name":"Bridge","priority":2,"requirements":{"r1":4}}
+ * {"resources":[{"id":"r1",...}],"projects":[{"id":"p1",...}]}
+ * </pre>
+ * A root object is an NDJSON record when its first field is {@code type}, and a document otherwise; other fields of
+ * a document are ignored.
+ */
+public class ProblemStreamParser {
+    private static final Set<String> SECTIONS = Set.of("resources", "projects");
+
+    private final ObjectMapper mapper;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private final List<SolverResource> resources = new ArrayList<>();
+    private final List<SolverProject> projects = new ArrayList<>();
+
+    private int depth;
+    // Root object whose first field has not been seen yet: NDJSON record or document
+    private boolean undecidedRoot;
+    private String field;
+    private String section;
+    // Record being captured, the depth it started at and the section it belongs to (null for NDJSON records)
+    private TokenBuffer record;
+    private int recordDepth;
+    private String recordSection;
+
+    public ProblemStreamParser(ObjectMapper mapper) throws IOException {
+        this.mapper = mapper;
+        this.parser = mapper.getFactory().createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    public void feed(byte[] bytes) throws IOException {
+        feeder.feedInput(bytes, 0, bytes.length);
+        drain();
+    }
+
+    public void end() throws IOException {
+        feeder.endOfInput();
+        drain();
+        if (depth != 0) {
+            throw new JsonParseException(parser, "Unexpected end of input");
+        }
+    }
+
+    public List<SolverResource> getResources() {
+        return resources;
+    }
+
+    public List<SolverProject> getProjects() {
+        return projects;
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            handle(token);
+        }
+    }
+
+    private void handle(JsonToken token) throws IOException {
+        if (token.isStructStart()) {
+            depth++;
+        }
+
+        if (record != null) {
+            record.copyCurrentEvent(parser);
+            if (token.isStructEnd() && depth == recordDepth) {
+                add(mapper.readTree(record.asParser(mapper)), recordSection);
+                record = null;
+            }
+        } else if (depth == 1 && token == JsonToken.START_OBJECT) {
+            undecidedRoot = true;
+        } else if (depth == 0 || depth == 1 && token.isStructStart()) {
+            throw new JsonParseException(parser, "Expected a JSON object per record or document, got " + token);
+        } else if (undecidedRoot && token == JsonToken.FIELD_NAME) {
+            undecidedRoot = false;
+            field = parser.currentName();
+            if (field.equals("type")) {
+                startRecord(1, null);
+                record.writeStartObject();
+                record.copyCurrentEvent(parser);
+            }
+        } else if (depth == 1 && token == JsonToken.FIELD_NAME) {
+            field = parser.currentName();
+        } else if (depth == 2 && token == JsonToken.START_ARRAY) {
+            section = SECTIONS.contains(field) ? field : null;
+        } else if (depth == 2 && token == JsonToken.END_ARRAY) {
+            section = null;
+        } else if (depth == 3 && token == JsonToken.START_OBJECT && section != null) {
+            startRecord(3, section);
+            record.copyCurrentEvent(parser);
+        }
+
+        if (token.isStructEnd()) {
+            depth--;
+        }
+    }
+
+    private void startRecord(int startDepth, String startSection) {
+        record = new TokenBuffer(mapper, false);
+        recordDepth = startDepth;
+        recordSection = startSection;
+    }
+
+    private void add(JsonNode node, String fromSection) {
+        String type = fromSection != null
+                ? fromSection.equals("resources") ? "resource" : "project"
+                : node.path("type").asText();
+        String id = node.path("id").asText();
+        if (id.isEmpty()) {
+            throw new IllegalArgumentException("Record without id: " + node);
+        }
+        switch (type) {
+            case "resource" -> resources.add(new SolverResource(id, node.path("name").asText(id),
+                    node.path("capacity").asInt(), node.path("cost").asInt()));
+            case "project" -> {
+                Map<String, Integer> requirements = new HashMap<>();
+                node.path("requirements").fields().forEachRemaining(e -> requirements.put(e.getKey(), e.getValue().asInt()));
+                projects.add(new SolverProject("", id, node.path("name").asText(id), requirements, node.path("priority").asInt()));
+            }
+            default -> throw new IllegalArgumentException("Unknown record type '" + type + "': " + node);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.acme.opt.rest;
+
+import io.quarkus.logging.Log;
+import io.quarkus.vertx.http.ManagementInterface;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.acme.opt.profiling.SolverPhaseEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * On-demand JDK Flight Recorder recording of the running service, served on the management interface
+ * ({@code quarkus.management.*}) rather than the public port that gRPC shares:
+ * <ul>
+ *     <li>{@code POST /admin/recordings/start?durationSeconds=60&settings=default} starts a recording with the JDK's
+ *     {@code default} (or {@code profile}) settings plus every {@link SolverPhaseEvent}. It stops by itself after
+ *     its duration, at most {@code allocation.profiling.max-duration-s}, and keeps at most
+ *     {@code allocation.profiling.max-size-mb} of data.</li>
+ *     <li>{@code POST /admin/recordings/stop} stops it if still running and returns the {@code .jfr} file.</li>
+ * </ul>
+ * Only one recording runs at a time. One that stopped by itself can still be fetched until the next start.
+ */
+@ApplicationScoped
+public class RecordingRoute {
+    public static final String PATH = "/admin/recordings";
+
+    @ConfigProperty(name = "allocation.profiling.max-duration-s", defaultValue = "600")
+    long maxDurationSeconds;
+
+    @ConfigProperty(name = "allocation.profiling.max-size-mb", defaultValue = "100")
+    long maxSizeMb;
+
+    private Recording recording;
+
+    void init(@Observes ManagementInterface management) {
+        management.router().post(PATH + "/start").handler(this::start);
+        management.router().post(PATH + "/stop").blockingHandler(this::stop);
+    }
+
+    private synchronized void start(RoutingContext context) {
+        HttpServerResponse response = context.response();
+        if (recording != null && recording.getState() != RecordingState.STOPPED) {
+            reply(response, 409, "A recording is already in progress, stop it first");
+            return;
+        }
+        Recording started;
+        long seconds;
+        try {
+            String duration = context.request().getParam("durationSeconds");
+            seconds = duration == null ? maxDurationSeconds : Math.min(maxDurationSeconds, Long.parseLong(duration));
+            String settings = context.request().getParam("settings");
+            started = new Recording(Configuration.getConfiguration(settings == null ? "default" : settings));
+        } catch (IllegalArgumentException | IOException | ParseException e) {
+            reply(response, 400, "Invalid recording parameters: " + e.getMessage());
+            return;
+        }
+        started.setName("allocation-" + System.currentTimeMillis());
+        started.enable(SolverPhaseEvent.class);
+        started.setToDisk(true);
+        started.setMaxSize(maxSizeMb * 1024 * 1024);
+        started.setDuration(Duration.ofSeconds(Math.max(1, seconds)));
+        started.start();
+        // A recording that reached its duration was never fetched: drop it to make room
+        if (recording != null) {
+            Log.infof("JFR recording %s expired without being fetched, discarding it", recording.getName());
+            recording.close();
+        }
+        recording = started;
+        Log.infof("JFR recording %s started for at most %d s", started.getName(), seconds);
+        reply(response, 200, "Recording " + started.getName() + " started for at most " + seconds + " s");
+    }
+
+    // Runs on a worker thread, and outside the lock: dumping the recording writes it to disk
+    private void stop(RoutingContext context) {
+        HttpServerResponse response = context.response();
+        Recording stopped;
+        synchronized (this) {
+            stopped = recording;
+            recording = null;
+        }
+        if (stopped == null) {
+            reply(response, 404, "No recording in progress");
+            return;
+        }
+        Path file;
+        try {
+            if (stopped.getState() == RecordingState.RUNNING) {
+                stopped.stop();
+            }
+            file = Files.createTempFile(stopped.getName(), ".jfr");
+            stopped.dump(file);
+        } catch (IOException e) {
+            reply(response, 500, "Error writing recording: " + e.getMessage());
+            return;
+        } finally {
+            stopped.close();
+        }
+        Log.infof("JFR recording %s stopped", stopped.getName());
+        response.putHeader(HttpHeaders.CONTENT_TYPE, "application/octet-stream")
+                .putHeader("Content-Disposition", "attachment; filename=\"" + stopped.getName() + ".jfr\"")
+                .sendFile(file.toString())
+                .onComplete(ar -> {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        Log.errorf("Error deleting %s: %s", file, e.getMessage());
+                    }
+                });
+    }
+
+    private static void reply(HttpServerResponse response, int status, String message) {
+        response.setStatusCode(status).putHeader(HttpHeaders.CONTENT_TYPE, "text/plain").end(message + "\n");
+    }
+}
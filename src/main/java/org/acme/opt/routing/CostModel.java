@@ -0,0 +1,113 @@
+package org.acme.opt.routing;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.solvers.LpSensitivity;
+import org.acme.opt.solvers.NativeLibraries;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Predicts, for every {@link Route}, the solve time and the quality (weighted usage relative to the LP optimum) of a
+ * problem from its {@link ProblemFeatures}, and picks the best route that fits a latency budget.
+ * <p>
+ * Time is modelled as {@code log(1 + ms)}, linear in the features, and quality as a linear function clamped to
+ * [0, 1]. Both start from rough priors and are recalibrated by every solve the service records.
+ */
+@ApplicationScoped
+public class CostModel {
+    private static final double FORGETTING = 0.995;
+
+    @ConfigProperty(name = "allocation.auto.default-budget-ms", defaultValue = "1000")
+    long defaultBudgetMillis;
+
+    @ConfigProperty(name = "allocation.auto.safety-factor", defaultValue = "1.5")
+    double safetyFactor;
+
+    @ConfigProperty(name = "allocation.auto.max-improvement-ms", defaultValue = "1000")
+    long maxImprovementMillis;
+
+    @ConfigProperty(name = "allocation.auto.native-load-ms", defaultValue = "500")
+    long nativeLoadMillis;
+
+    // Measuring quality costs an LP bound computation, so after warm-up only one heuristic solve in N pays for it
+    @ConfigProperty(name = "allocation.auto.quality-sample-every", defaultValue = "8")
+    int qualitySampleEvery;
+
+    // Feature order: bias, log nnz, log projects, log resources, demand/capacity, density, requirement variation
+    private final Map<Route, OnlineRegression> time = new EnumMap<>(Map.of(
+            Route.GREEDY, new OnlineRegression(new double[]{-7.5, 1, 0, 0, 0, 0, 0}, 1, FORGETTING),
+            // The LP has a variable for every (project, resource) pair
+            Route.LINEAR_PROGRAMMING, new OnlineRegression(new double[]{-7, 0, 1, 1, 0, 0, 0}, 1, FORGETTING)));
+    private final Map<Route, OnlineRegression> quality = new EnumMap<>(Map.of(
+            Route.GREEDY, new OnlineRegression(new double[]{0.9, 0, 0, 0, 0, 0, 0}, 1, FORGETTING),
+            Route.LOCAL_SEARCH, new OnlineRegression(new double[]{0.95, 0, 0, 0, 0, 0, 0}, 1, FORGETTING)));
+
+    private final AtomicLong heuristicSolves = new AtomicLong();
+
+    public record Decision(Route route, int improvementTimeLimitMs, double predictedMillis, double predictedQuality) {
+    }
+
+    public Decision route(ProblemFeatures features, long budgetMillis) {
+        long budget = budgetMillis > 0 ? budgetMillis : defaultBudgetMillis;
+        double[] x = features.vector();
+
+        double greedyMillis = predictMillis(Route.GREEDY, x);
+        Decision best = new Decision(Route.GREEDY, 0, greedyMillis, predictQuality(Route.GREEDY, x));
+
+        // Local search is anytime: give it half of what the greedy leaves of the budget
+        long improvement = Math.min(maxImprovementMillis, (long) ((budget - greedyMillis * safetyFactor) / 2));
+        if (improvement >= 50) {
+            best = better(best, new Decision(Route.LOCAL_SEARCH, (int) improvement, greedyMillis + improvement,
+                    predictQuality(Route.LOCAL_SEARCH, x)), budget);
+        }
+
+        double lpMillis = predictMillis(Route.LINEAR_PROGRAMMING, x)
+                + (NativeLibraries.isLoaded() ? 0 : nativeLoadMillis);
+        best = better(best, new Decision(Route.LINEAR_PROGRAMMING, 0, lpMillis, 1), budget);
+        return best;
+    }
+
+    /**
+     * Calibrates the model with a finished solve. Time is only learnt for the engines the model times directly, and
+     * quality only for the heuristics, whose result is compared with the LP optimum.
+     */
+    public void record(Route route, ProblemFeatures features, double elapsedMillis, List<SolverResource> resources,
+                       List<SolverProject> projects, Map<SolverProject, List<SolverResource>> result) {
+        double[] x = features.vector();
+        OnlineRegression timeModel = time.get(route);
+        if (timeModel != null) {
+            timeModel.update(x, Math.log1p(elapsedMillis));
+        }
+        OnlineRegression qualityModel = quality.get(route);
+        if (qualityModel != null && (qualityModel.samples() < 32 || heuristicSolves.incrementAndGet() % qualitySampleEvery == 0)) {
+            double optimum = LpSensitivity.analyze(resources, projects).objective();
+            double achieved = 0;
+            for (Map.Entry<SolverProject, List<SolverResource>> entry : result.entrySet()) {
+                double units = entry.getValue().stream().mapToInt(SolverResource::getAvailableCapacity).sum();
+                achieved += LpSensitivity.weight(entry.getKey()) * units;
+            }
+            qualityModel.update(x, optimum > 0 ? Math.min(1, achieved / optimum) : 1);
+        }
+    }
+
+    private Decision better(Decision current, Decision candidate, long budget) {
+        boolean fits = candidate.predictedMillis() * safetyFactor <= budget;
+        boolean higherQuality = candidate.predictedQuality() > current.predictedQuality()
+                || candidate.predictedQuality() == current.predictedQuality() && candidate.predictedMillis() < current.predictedMillis();
+        return fits && higherQuality ? candidate : current;
+    }
+
+    private double predictMillis(Route route, double[] x) {
+        return Math.max(0, Math.expm1(time.get(route).predict(x)));
+    }
+
+    private double predictQuality(Route route, double[] x) {
+        return Math.max(0, Math.min(1, quality.get(route).predict(x)));
+    }
+}
@@ -0,0 +1,56 @@
+package org.acme.opt.routing;
+
+/**
+ * Recursive least squares with exponential forgetting: a linear model updated in O(d^2) per observation, so that
+ * recent timings outweigh old ones when the load or the hardware changes.
+ */
+class OnlineRegression {
+    private final double[] theta;
+    private final double[][] covariance;
+    private final double forgetting;
+    private long samples;
+
+    OnlineRegression(double[] prior, double priorVariance, double forgetting) {
+        this.theta = prior.clone();
+        this.covariance = new double[prior.length][prior.length];
+        for (int i = 0; i < prior.length; i++) {
+            covariance[i][i] = priorVariance;
+        }
+        this.forgetting = forgetting;
+    }
+
+    synchronized double predict(double[] x) {
+        double y = 0;
+        for (int i = 0; i < theta.length; i++) {
+            y += theta[i] * x[i];
+        }
+        return y;
+    }
+
+    synchronized void update(double[] x, double y) {
+        int d = theta.length;
+        double[] px = new double[d];
+        double denominator = forgetting;
+        for (int i = 0; i < d; i++) {
+            for (int j = 0; j < d; j++) {
+                px[i] += covariance[i][j] * x[j];
+            }
+            denominator += x[i] * px[i];
+        }
+        double error = y - predict(x);
+        for (int i = 0; i < d; i++) {
+            theta[i] += px[i] / denominator * error;
+        }
+        // P = (P - P x x^T P / denominator) / forgetting; P stays symmetric
+        for (int i = 0; i < d; i++) {
+            for (int j = 0; j < d; j++) {
+                covariance[i][j] = (covariance[i][j] - px[i] * px[j] / denominator) / forgetting;
+            }
+        }
+        samples++;
+    }
+
+    synchronized long samples() {
+        return samples;
+    }
+}
@@ -0,0 +1,53 @@
+package org.acme.opt.routing;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size and shape of a problem, extracted in one pass over the requirements, that the {@link CostModel} predicts
+ * solve time and quality from.
+ */
+public record ProblemFeatures(int projects, int resources, long nonZeros, double demandCapacityRatio, double density,
+                              double requirementVariation) {
+
+    public static ProblemFeatures of(List<SolverResource> resourceList, List<SolverProject> projectList) {
+        Map<String, Long> capacity = new HashMap<>();
+        resourceList.forEach(r -> capacity.merge(r.getId(), (long) r.getAvailableCapacity(), Long::sum));
+
+        long nonZeros = 0;
+        double demand = 0;
+        double sumSquares = 0;
+        for (SolverProject project : projectList) {
+            for (int requirement : project.getRequirements().values()) {
+                nonZeros++;
+                demand += requirement;
+                sumSquares += (double) requirement * requirement;
+            }
+        }
+        long totalCapacity = capacity.values().stream().mapToLong(Long::longValue).sum();
+        double mean = nonZeros > 0 ? demand / nonZeros : 0;
+        double variance = nonZeros > 0 ? Math.max(0, sumSquares / nonZeros - mean * mean) : 0;
+        int resources = capacity.size();
+        return new ProblemFeatures(projectList.size(), resources, nonZeros,
+                totalCapacity > 0 ? demand / totalCapacity : demand > 0 ? Double.POSITIVE_INFINITY : 0,
+                projectList.isEmpty() || resources == 0 ? 0 : (double) nonZeros / ((double) projectList.size() * resources),
+                mean > 0 ? Math.sqrt(variance) / mean : 0);
+    }
+
+    // Regression inputs: log sizes (solve times grow polynomially) plus the shape ratios, capped to keep them bounded
+    double[] vector() {
+        return new double[]{
+                1,
+                Math.log1p(nonZeros),
+                Math.log1p(projects),
+                Math.log1p(resources),
+                Math.min(demandCapacityRatio, 10),
+                density,
+                Math.min(requirementVariation, 5)
+        };
+    }
+}
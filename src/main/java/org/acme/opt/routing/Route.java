@@ -0,0 +1,20 @@
+package org.acme.opt.routing;
+
+import org.acme.opt.models.enums.AllocationEngine;
+
+// Engines the auto mode chooses between; they all maximize the same weighted usage, so their quality compares.
+public enum Route {
+    GREEDY(AllocationEngine.GREEDY),
+    LOCAL_SEARCH(AllocationEngine.GREEDY),
+    LINEAR_PROGRAMMING(AllocationEngine.LINEAR_PROGRAMMING);
+
+    private final AllocationEngine engine;
+
+    Route(AllocationEngine engine) {
+        this.engine = engine;
+    }
+
+    public AllocationEngine engine() {
+        return engine;
+    }
+}
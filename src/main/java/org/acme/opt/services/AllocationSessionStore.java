@@ -0,0 +1,131 @@
+package org.acme.opt.services;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import resourceallocation.AllocationRequest;
+import resourceallocation.AllocationResponse;
+import resourceallocation.ProjectAllocation;
+import resourceallocation.ProjectStats;
+
+import java.util.*;
+
+/**
+ * Remembers the last response sent to each client session and turns full responses into deltas.
+ * <p>
+ * A delta is only sent when the client's base_version matches the version stored for its session; a missing or
+ * evicted session, or a client that skipped a response, gets a full resync instead. Sessions are evicted oldest first
+ * beyond {@code allocation.delta.max-sessions} sessions or {@code allocation.delta.max-bytes} of estimated heap, and
+ * expire {@code allocation.delta.ttl-minutes} after their last response.
+ */
+@ApplicationScoped
+public class AllocationSessionStore {
+
+    private record Session(String version, Map<String, ProjectAllocation> allocations, Map<String, ProjectStats> stats,
+                           long bytes, long storedAt) {
+    }
+
+    // Rough heap cost of a map entry and its key, on top of the value
+    private static final int ENTRY_BYTES = 96;
+
+    @ConfigProperty(name = "allocation.delta.max-sessions", defaultValue = "10000")
+    int maxSessions;
+
+    @ConfigProperty(name = "allocation.delta.max-bytes", defaultValue = "268435456")
+    long maxBytes;
+
+    @ConfigProperty(name = "allocation.delta.ttl-minutes", defaultValue = "30")
+    long ttlMinutes;
+
+    // Sessions are re-inserted on every response, so iteration order is oldest response first
+    private final Map<String, Session> sessions = new LinkedHashMap<>();
+    private long totalBytes;
+
+    /**
+     * @param full        the complete response built by the mapper
+     * @param allocations the project allocations of that response keyed by project id
+     */
+    public AllocationResponse encode(AllocationRequest request, AllocationResponse full, Map<String, ProjectAllocation> allocations) {
+        String version = UUID.randomUUID().toString();
+        Map<String, ProjectStats> stats = full.getProjectStatsMap();
+        long now = System.currentTimeMillis();
+        Session session = new Session(version, allocations, stats, estimateBytes(allocations, stats), now);
+
+        Session previous;
+        synchronized (sessions) {
+            previous = sessions.remove(request.getSessionId());
+            if (previous != null) {
+                totalBytes -= previous.bytes();
+            }
+            sessions.put(request.getSessionId(), session);
+            totalBytes += session.bytes();
+            evict(now);
+        }
+        if (previous != null && expired(previous, now)) {
+            previous = null;
+        }
+
+        if (previous == null || request.getBaseVersion().isEmpty() || !previous.version().equals(request.getBaseVersion())) {
+            return full.toBuilder()
+                    .clearProjectAllocations()
+                    .putAllProjectAllocations(allocations)
+                    .setVersionToken(version)
+                    .setFullResync(true)
+                    .build();
+        }
+
+        AllocationResponse.Builder delta = AllocationResponse.newBuilder()
+                .setAllocationId(full.getAllocationId())
+                .setStatus(full.getStatus())
+                .setGlobalStats(full.getGlobalStats())
+                .setVersionToken(version)
+                .setFullResync(false);
+
+        allocations.forEach((projectId, allocation) -> {
+            if (!allocation.equals(previous.allocations().get(projectId))) {
+                delta.putProjectAllocations(projectId, allocation);
+            }
+        });
+        stats.forEach((projectId, projectStats) -> {
+            if (!projectStats.equals(previous.stats().get(projectId))) {
+                delta.putProjectStats(projectId, projectStats);
+            }
+        });
+
+        Set<String> removed = new TreeSet<>(previous.allocations().keySet());
+        removed.addAll(previous.stats().keySet());
+        removed.removeAll(allocations.keySet());
+        removed.removeAll(stats.keySet());
+        delta.addAllRemovedProjects(removed);
+
+        return delta.build();
+    }
+
+    // Drops the oldest sessions while any bound is exceeded or they have expired; callers hold the lock
+    private void evict(long now) {
+        Iterator<Session> oldest = sessions.values().iterator();
+        while (oldest.hasNext()) {
+            Session session = oldest.next();
+            if (sessions.size() <= maxSessions && totalBytes <= maxBytes && !expired(session, now)) {
+                return;
+            }
+            oldest.remove();
+            totalBytes -= session.bytes();
+        }
+    }
+
+    private boolean expired(Session session, long now) {
+        return now - session.storedAt() > ttlMinutes * 60_000;
+    }
+
+    // Parsed messages take about twice their serialized size on the heap
+    private static long estimateBytes(Map<String, ProjectAllocation> allocations, Map<String, ProjectStats> stats) {
+        long bytes = 0;
+        for (Map.Entry<String, ProjectAllocation> entry : allocations.entrySet()) {
+            bytes += ENTRY_BYTES + 2L * entry.getKey().length() + 2L * entry.getValue().getSerializedSize();
+        }
+        for (Map.Entry<String, ProjectStats> entry : stats.entrySet()) {
+            bytes += ENTRY_BYTES + 2L * entry.getKey().length() + 2L * entry.getValue().getSerializedSize();
+        }
+        return bytes;
+    }
+}
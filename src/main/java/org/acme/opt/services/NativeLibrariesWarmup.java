@@ -0,0 +1,31 @@
+package org.acme.opt.services;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.acme.opt.solvers.NativeLibraries;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+// Loads the OR-Tools libraries in the background at startup when allocation.native.warmup is set, so the first
+// LP request does not pay for it. Startup itself and the greedy path never wait for it.
+@ApplicationScoped
+public class NativeLibrariesWarmup {
+
+    @ConfigProperty(name = "allocation.native.warmup", defaultValue = "false")
+    boolean warmup;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!warmup) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                NativeLibraries.ensureLoaded();
+            } catch (RuntimeException e) {
+                System.err.println("Error loading OR-Tools native libraries: " + e.getMessage());
+            }
+        }, "ortools-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -1,35 +1,86 @@
 package org.acme.opt.services;
 
+import io.grpc.Status;
 import io.quarkus.grpc.GrpcService;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.acme.opt.distributed.DistributedSolver;
+import org.acme.opt.distributed.PartitionExecutor;
+import org.acme.opt.distributed.WorkerPool;
+import org.acme.opt.feasibility.FeasibilityChecker;
 import org.acme.opt.mappers.AllocationResponseMapper;
+import org.acme.opt.mappers.ColumnarAllocationCodec;
+import org.acme.opt.models.SolveOptions;
 import org.acme.opt.models.SolverProject;
 import org.acme.opt.models.SolverResource;
 import org.acme.opt.models.SolverStrategy;
-import org.acme.opt.solvers.GreedyAssignmentSolver;
-import org.acme.opt.solvers.MaximizeResourceUsage;
+import org.acme.opt.models.enums.AllocationEngine;
+import org.acme.opt.online.OnlineAllocationEngine;
+import org.acme.opt.profiling.SolverPhaseEvent;
+import org.acme.opt.profiling.SolverPhaseEvent.Phase;
+import org.acme.opt.routing.CostModel;
+import org.acme.opt.routing.ProblemFeatures;
+import org.acme.opt.routing.Route;
+import org.acme.opt.snapshot.SnapshotCapture;
+import org.acme.opt.solvers.BaseSolver;
+import org.acme.opt.solvers.LocalSearchSolver;
+import org.acme.opt.solvers.LpSensitivity;
+import org.acme.opt.solvers.NativeLibraries;
+import org.acme.opt.solvers.ProjectSelectionSolver;
+import org.acme.opt.solvers.RobustAllocationSolver;
 import org.acme.opt.stats.ResourceAllocationStats;
+import org.acme.opt.store.AllocationStore;
 import resourceallocation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 @GrpcService
 public class ResourceAllocationServiceImpl implements ResourceAllocationService {
 
+    @Inject
+    SnapshotCapture snapshotCapture;
+
+    @Inject
+    AllocationSessionStore sessionStore;
+
+    @Inject
+    SolverFactory solverFactory;
+
+    @Inject
+    WorkerPool workerPool;
+
+    @Inject
+    PartitionExecutor partitionExecutor;
+
+    @Inject
+    CostModel costModel;
+
+    @Inject
+    OnlineAllocationEngine onlineEngine;
+
+    @Inject
+    AllocationStore allocationStore;
+
+    @Inject
+    FeasibilityChecker feasibilityChecker;
+
+    // Solves natively and appends the response to the allocation store, so it must not run on the event loop
     @Override
+    @Blocking
     public Uni<AllocationResponse> allocateResourcesLinearProgramming(AllocationRequest request) {
-        List<SolverResource> resources = request.getResourcesList().stream()
-                .map(r -> new SolverResource(r.getId(), r.getName(), r.getCapacity(), (int) r.getCost()))
-                .toList();
-        List<SolverProject> projects = request.getProjectsList().stream()
-                .map(p -> new SolverProject("", p.getId(), p.getName(), p.getRequirementsMap(), p.getPriority()))
-                .toList();
+        DecodedRequest decoded = decode(request, AllocationEngine.LINEAR_PROGRAMMING);
+        List<SolverResource> resources = decoded.resources();
+        List<SolverProject> projects = decoded.projects();
+        snapshotCapture.capture(AllocationEngine.LINEAR_PROGRAMMING, SolverStrategy.fromProto(request.getStrategy()), resources, projects);
         // Call the algorithm.
 
-        MaximizeResourceUsage solver = new MaximizeResourceUsage(resources, projects);
-        Map<SolverProject, List<SolverResource>> result = solver.solve();
+        BaseSolver solver = solverFactory.create(AllocationEngine.LINEAR_PROGRAMMING, resources, projects, SolveOptions.fromProto(request));
+        Map<SolverProject, List<SolverResource>> result = solveRecorded(Route.LINEAR_PROGRAMMING, solver, resources, projects).result();
 
 //        var stats = new ResourceAllocationStats(resources, projects, solver);
 //        stats.exportAllocationStatsToCsv(result, "linear_programming.csv");
@@ -37,22 +88,25 @@ public class ResourceAllocationServiceImpl implements ResourceAllocationService
 
         var mapper = new AllocationResponseMapper();
         var res_metadata = mapper.buildAllocationResponseMetadata(result, resources, projects, solver);
-        return Uni.createFrom().item(res_metadata);
+        int topK = request.getBottleneckTopK() > 0 ? request.getBottleneckTopK() : 5;
+        res_metadata = mapper.withSensitivity(res_metadata, LpSensitivity.analyze(resources, projects), topK);
+        return Uni.createFrom().item(withSession(request, res_metadata, result, mapper));
     }
 
+    // The local search runs for up to allocation.greedy.max-improvement-ms, so it must not run on the event loop
     @Override
+    @Blocking
     public Uni<AllocationResponse> allocateResourcesGreedy(AllocationRequest request) {
-        List<SolverResource> resources = request.getResourcesList().stream()
-                .map(r -> new SolverResource(r.getId(), r.getName(), r.getCapacity(), (int) r.getCost()))
-                .toList();
-        List<SolverProject> projects = request.getProjectsList().stream()
-                .map(p -> new SolverProject("", p.getId(), p.getName(), p.getRequirementsMap(), p.getPriority()))
-                .toList();
+        DecodedRequest decoded = decode(request, AllocationEngine.GREEDY);
+        List<SolverResource> resources = decoded.resources();
+        List<SolverProject> projects = decoded.projects();
         SolverStrategy strategy = SolverStrategy.fromProto(request.getStrategy());
+        snapshotCapture.capture(AllocationEngine.GREEDY, strategy, resources, projects);
 
-        GreedyAssignmentSolver solver = new GreedyAssignmentSolver(resources, projects, strategy);
+        BaseSolver solver = solverFactory.create(AllocationEngine.GREEDY, resources, projects, SolveOptions.fromProto(request));
 
-        Map<SolverProject, List<SolverResource>> result = solver.solve();
+        Route route = request.getStrategy().getImprovementTimeLimitMs() > 0 ? Route.LOCAL_SEARCH : Route.GREEDY;
+        Map<SolverProject, List<SolverResource>> result = solveRecorded(route, solver, resources, projects).result();
 
 //        var stats = new ResourceAllocationStats(resources, projects, solver);
 //        stats.printAllStats(result);
@@ -60,7 +114,291 @@ public class ResourceAllocationServiceImpl implements ResourceAllocationService
 
         var mapper = new AllocationResponseMapper();
         var res_metadata = mapper.buildAllocationResponseMetadata(result, resources, projects, solver);
+        if (solver instanceof LocalSearchSolver localSearch) {
+            res_metadata = mapper.withLocalSearchReport(res_metadata, localSearch.getReport());
+        }
+
+        return Uni.createFrom().item(withSession(request, res_metadata, result, mapper));
+    }
+
+    // Branch-and-bound and CP-SAT run for up to allocation.selection.time-limit-ms, so it must not run on the event loop
+    @Override
+    @Blocking
+    public Uni<AllocationResponse> allocateProjectSelection(AllocationRequest request) {
+        DecodedRequest decoded = decode(request, AllocationEngine.PROJECT_SELECTION);
+        List<SolverResource> resources = decoded.resources();
+        List<SolverProject> projects = decoded.projects();
+        snapshotCapture.capture(AllocationEngine.PROJECT_SELECTION, SolverStrategy.fromProto(request.getStrategy()), resources, projects);
+
+        ProjectSelectionSolver solver;
+        try {
+            solver = solverFactory.createProjectSelection(resources, projects, SolveOptions.fromProto(request));
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().failure(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+        }
+        Map<SolverProject, List<SolverResource>> result = solve(AllocationEngine.PROJECT_SELECTION, solver, resources, projects);
+
+        var mapper = new AllocationResponseMapper();
+        var res_metadata = mapper.withSelectionReport(
+                mapper.buildAllocationResponseMetadata(result, resources, projects, solver), solver.getReport());
+        return Uni.createFrom().item(withSession(request, res_metadata, result, mapper));
+    }
+
+    // Appends the response to the allocation store, so it must not run on the event loop
+    @Override
+    @Blocking
+    public Uni<AllocationResponse> allocateResourcesFair(AllocationRequest request) {
+        DecodedRequest decoded = decode(request, AllocationEngine.FAIR_SHARE);
+        List<SolverResource> resources = decoded.resources();
+        List<SolverProject> projects = decoded.projects();
+        snapshotCapture.capture(AllocationEngine.FAIR_SHARE, SolverStrategy.fromProto(request.getStrategy()), resources, projects);
+
+        BaseSolver solver = solverFactory.create(AllocationEngine.FAIR_SHARE, resources, projects, SolveOptions.fromProto(request));
+        Map<SolverProject, List<SolverResource>> result = solve(AllocationEngine.FAIR_SHARE, solver, resources, projects);
+
+        var mapper = new AllocationResponseMapper();
+        var res_metadata = mapper.buildAllocationResponseMetadata(result, resources, projects, solver);
+        return Uni.createFrom().item(withSession(request, res_metadata, result, mapper));
+    }
+
+    // Runs the native min-cost flow solver, so it must not run on the event loop
+    @Override
+    @Blocking
+    public Uni<AllocationResponse> allocateResourcesFlow(AllocationRequest request) {
+        DecodedRequest decoded = decode(request, AllocationEngine.MIN_COST_FLOW);
+        List<SolverResource> resources = decoded.resources();
+        List<SolverProject> projects = decoded.projects();
+        snapshotCapture.capture(AllocationEngine.MIN_COST_FLOW, SolverStrategy.fromProto(request.getStrategy()), resources, projects);
+
+        BaseSolver solver = solverFactory.create(AllocationEngine.MIN_COST_FLOW, resources, projects, SolveOptions.fromProto(request));
+        Map<SolverProject, List<SolverResource>> result = solve(AllocationEngine.MIN_COST_FLOW, solver, resources, projects);
+
+        var mapper = new AllocationResponseMapper();
+        var res_metadata = mapper.buildAllocationResponseMetadata(result, resources, projects, solver);
+        return Uni.createFrom().item(withSession(request, res_metadata, result, mapper));
+    }
+
+    // May build and solve one GLOP model per contested priority tier, so it must not run on the event loop
+    @Override
+    @Blocking
+    public Uni<AllocationResponse> allocateResourcesLexicographic(AllocationRequest request) {
+        DecodedRequest decoded = decode(request, AllocationEngine.LEXICOGRAPHIC);
+        List<SolverResource> resources = decoded.resources();
+        List<SolverProject> projects = decoded.projects();
+        snapshotCapture.capture(AllocationEngine.LEXICOGRAPHIC, SolverStrategy.fromProto(request.getStrategy()), resources, projects);
+
+        BaseSolver solver = solverFactory.create(AllocationEngine.LEXICOGRAPHIC, resources, projects, SolveOptions.fromProto(request));
+        Map<SolverProject, List<SolverResource>> result = solve(AllocationEngine.LEXICOGRAPHIC, solver, resources, projects);
+
+        var mapper = new AllocationResponseMapper();
+        var res_metadata = mapper.buildAllocationResponseMetadata(result, resources, projects, solver);
+        return Uni.createFrom().item(withSession(request, res_metadata, result, mapper));
+    }
+
+    // Solves every scenario on the worker pool, so it must not run on the event loop
+    @Override
+    @Blocking
+    public Uni<AllocationResponse> allocateResourcesRobust(AllocationRequest request) {
+        DecodedRequest decoded = decode(request, "ROBUST");
+        List<SolverResource> resources = decoded.resources();
+        List<SolverProject> projects = decoded.projects();
+        // Replays as the greedy on the nominal capacities
+        snapshotCapture.capture(AllocationEngine.GREEDY, SolverStrategy.fromProto(request.getStrategy()), resources, projects);
+
+        RobustAllocationSolver solver;
+        try {
+            solver = solverFactory.createRobust(resources, projects, SolveOptions.fromProto(request), request.getRobust());
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().failure(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+        }
+        Map<SolverProject, List<SolverResource>> result = solve("ROBUST", solver, resources, projects);
+
+        var mapper = new AllocationResponseMapper();
+        var res_metadata = mapper.withRobustReport(
+                mapper.buildAllocationResponseMetadata(result, resources, projects, solver), solver.getReport());
+        return Uni.createFrom().item(withSession(request, res_metadata, result, mapper));
+    }
+
+    // May route to the local search, or to the LP and its first native library load, so it must not run on the event loop
+    @Override
+    @Blocking
+    public Uni<AllocationResponse> allocateResourcesAuto(AllocationRequest request) {
+        DecodedRequest decoded = decode(request, "AUTO");
+        List<SolverResource> resources = decoded.resources();
+        List<SolverProject> projects = decoded.projects();
+        CostModel.Decision decision = costModel.route(ProblemFeatures.of(resources, projects), request.getLatencyBudgetMs());
+        SolveOptions requested = SolveOptions.fromProto(request);
+        SolveOptions options = new SolveOptions(requested.strategy(), decision.improvementTimeLimitMs(), requested.minCompletion());
+        AllocationEngine engine = decision.route().engine();
+        snapshotCapture.capture(engine, options.strategy(), resources, projects);
+
+        BaseSolver solver = solverFactory.create(engine, resources, projects, options);
+        RecordedSolve solve = solveRecorded(decision.route(), solver, resources, projects);
+
+        var mapper = new AllocationResponseMapper();
+        var res_metadata = mapper.withRouting(
+                mapper.buildAllocationResponseMetadata(solve.result(), resources, projects, solver), decision, solve.elapsedMillis());
+        return Uni.createFrom().item(withSession(request, res_metadata, solve.result(), mapper));
+    }
+
+    @Override
+    public Uni<FeasibilityResponse> checkFeasibility(FeasibilityRequest request) {
+        try {
+            return Uni.createFrom().item(feasibilityChecker.check(request));
+        } catch (NoSuchElementException e) {
+            return Uni.createFrom().failure(Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException());
+        }
+    }
+
+    // Events are applied in arrival order; the allocation they update is shared by every stream
+    @Override
+    public Multi<AllocationUpdate> streamAllocationEvents(Multi<AllocationEvent> request) {
+        return request.map(onlineEngine::apply);
+    }
+
+    // Waits for the workers, so it must not run on the event loop
+    @Override
+    @Blocking
+    public Uni<AllocationResponse> allocateResourcesDistributed(AllocationRequest request) {
+        DecodedRequest decoded = decode(request, "DISTRIBUTED");
+        List<SolverResource> resources = decoded.resources();
+        List<SolverProject> projects = decoded.projects();
+        AllocationEngine engine = AllocationEngine.fromProto(request.getEngine());
+        // Rejected here rather than by every worker
+        if (engine == AllocationEngine.PROJECT_SELECTION) {
+            try {
+                SolverFactory.checkMinCompletion(request.getMinCompletion());
+            } catch (IllegalArgumentException e) {
+                return Uni.createFrom().failure(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            }
+        }
+        snapshotCapture.capture(engine, SolverStrategy.fromProto(request.getStrategy()), resources, projects);
+
+        BaseSolver solver = new DistributedSolver(resources, projects, engine, SolveOptions.fromProto(request), workerPool);
+        Map<SolverProject, List<SolverResource>> result = solve(engine, solver, resources, projects);
+
+        var mapper = new AllocationResponseMapper();
+        var res_metadata = mapper.buildAllocationResponseMetadata(result, resources, projects, solver);
+        return Uni.createFrom().item(withSession(request, res_metadata, result, mapper));
+    }
+
+    @Override
+    @Blocking
+    public Uni<PartitionResponse> solvePartition(PartitionRequest request) {
+        try {
+            return Uni.createFrom().item(partitionExecutor.solve(request));
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().failure(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+        }
+    }
+
+    // Reads a mapped segment, so it must not run on the event loop
+    @Override
+    @Blocking
+    public Uni<AllocationPage> getAllocation(GetAllocationRequest request) {
+        if (!allocationStore.isEnabled()) {
+            return Uni.createFrom().failure(Status.FAILED_PRECONDITION
+                    .withDescription("Allocation store disabled (allocation.store.dir)").asRuntimeException());
+        }
+        try {
+            return allocationStore.get(request.getAllocationId(), request.getPageSize(), request.getPageToken())
+                    .map(page -> Uni.createFrom().item(page))
+                    .orElseGet(() -> Uni.createFrom().failure(Status.NOT_FOUND
+                            .withDescription("Unknown allocation " + request.getAllocationId()).asRuntimeException()));
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().failure(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+        }
+    }
+
+    @Override
+    @Blocking
+    public Uni<ListAllocationsResponse> listAllocations(ListAllocationsRequest request) {
+        if (!allocationStore.isEnabled()) {
+            return Uni.createFrom().failure(Status.FAILED_PRECONDITION
+                    .withDescription("Allocation store disabled (allocation.store.dir)").asRuntimeException());
+        }
+        try {
+            return Uni.createFrom().item(allocationStore.list(request.getPageSize(), request.getPageToken()));
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().failure(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+        }
+    }
+
+    private record DecodedRequest(List<SolverResource> resources, List<SolverProject> projects) {
+    }
+
+    private DecodedRequest decode(AllocationRequest request, AllocationEngine engine) {
+        return decode(request, engine.name());
+    }
+
+    // Converts the request into the solver models, recorded as the DECODE phase of the given engine (or mode)
+    private DecodedRequest decode(AllocationRequest request, String engine) {
+        SolverPhaseEvent decode = SolverPhaseEvent.start(Phase.DECODE, engine);
+        List<SolverResource> resources = request.getResourcesList().stream()
+                .map(r -> new SolverResource(r.getId(), r.getName(), r.getCapacity(), (int) r.getCost()))
+                .toList();
+        List<SolverProject> projects = request.getProjectsList().stream()
+                .map(p -> new SolverProject("", p.getId(), p.getName(), p.getRequirementsMap(), p.getPriority()))
+                .toList();
+        decode.end(resources, projects, "");
+        return new DecodedRequest(resources, projects);
+    }
+
+    private record RecordedSolve(Map<SolverProject, List<SolverResource>> result, double elapsedMillis) {
+    }
+
+    private Map<SolverProject, List<SolverResource>> solve(AllocationEngine engine, BaseSolver solver,
+                                                            List<SolverResource> resources, List<SolverProject> projects) {
+        return solve(engine.name(), solver, resources, projects);
+    }
+
+    private Map<SolverProject, List<SolverResource>> solve(String engine, BaseSolver solver,
+                                                            List<SolverResource> resources, List<SolverProject> projects) {
+        SolverPhaseEvent event = SolverPhaseEvent.start(Phase.SOLVE, engine);
+        Map<SolverProject, List<SolverResource>> result = solver.solve();
+        event.end(resources, projects, result.size() + " projects allocated");
+        return result;
+    }
+
+    // Solves and feeds the timing to the cost model; an LP solve that had to load the native libraries is not typical.
+    private RecordedSolve solveRecorded(Route route, BaseSolver solver, List<SolverResource> resources, List<SolverProject> projects) {
+        boolean cold = route == Route.LINEAR_PROGRAMMING && !NativeLibraries.isLoaded();
+        long start = System.nanoTime();
+        Map<SolverProject, List<SolverResource>> result = solve(route.engine(), solver, resources, projects);
+        double elapsedMillis = (System.nanoTime() - start) / 1e6;
+        if (!cold) {
+            costModel.record(route, ProblemFeatures.of(resources, projects), elapsedMillis, resources, projects, result);
+        }
+        return new RecordedSolve(result, elapsedMillis);
+    }
 
-        return Uni.createFrom().item(res_metadata);
+    // Stores the complete response, then encodes it as the client asked: columnar, or only what changed since the
+    // last response of its session. The store appends, and may fsync or roll its segment, on the calling thread, so
+    // every caller is @Blocking.
+    private AllocationResponse withSession(AllocationRequest request, AllocationResponse response,
+                                           Map<SolverProject, List<SolverResource>> result, AllocationResponseMapper mapper) {
+        Map<String, ProjectAllocation> allocations = null;
+        if (allocationStore.isEnabled()) {
+            allocations = mapper.buildProjectAllocationsById(result);
+            allocationStore.put(response, allocations);
+        }
+        if (request.getResponseEncoding() == ResponseEncoding.ENCODING_COLUMNAR) {
+            SolverPhaseEvent encode = SolverPhaseEvent.start(Phase.ENCODE, "COLUMNAR");
+            AllocationResponse columnar = response.toBuilder()
+                    .clearProjectAllocations()
+                    .clearProjectStats()
+                    .setColumnar(ColumnarAllocationCodec.encode(result, response.getProjectStatsMap()))
+                    .build();
+            encode.end(result, "");
+            return columnar;
+        }
+        if (request.getSessionId().isEmpty()) {
+            return response;
+        }
+        SolverPhaseEvent encode = SolverPhaseEvent.start(Phase.ENCODE, "DELTA");
+        AllocationResponse delta = sessionStore.encode(request, response,
+                allocations != null ? allocations : mapper.buildProjectAllocationsById(result));
+        encode.end(result, delta.getFullResync() ? "full resync" : "delta");
+        return delta;
     }
 }
@@ -0,0 +1,99 @@
+package org.acme.opt.services;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.opt.models.SolveOptions;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.enums.AllocationEngine;
+import org.acme.opt.presolve.PresolvingSolver;
+import org.acme.opt.solvers.*;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import resourceallocation.RobustOptions;
+
+import java.util.List;
+
+// Builds the solver behind each engine, so that every entry point runs the same configuration.
+@ApplicationScoped
+public class SolverFactory {
+
+    @ConfigProperty(name = "allocation.selection.time-limit-ms", defaultValue = "2000")
+    long selectionTimeLimit;
+
+    @ConfigProperty(name = "allocation.presolve.enabled", defaultValue = "true")
+    boolean presolveEnabled;
+
+    // The plain greedy runs on all cores from this many projects on; 0 keeps it sequential
+    @ConfigProperty(name = "allocation.greedy.parallel-min-projects", defaultValue = "100000")
+    int parallelGreedyMinProjects;
+
+    // Longest local search a request may ask for after the greedy
+    @ConfigProperty(name = "allocation.greedy.max-improvement-ms", defaultValue = "5000")
+    long maxImprovementMs;
+
+    // Scenarios of a robust solve when the request does not say, and the most a request may ask for
+    @ConfigProperty(name = "allocation.robust.default-scenarios", defaultValue = "1000")
+    int robustDefaultScenarios;
+
+    @ConfigProperty(name = "allocation.robust.max-scenarios", defaultValue = "10000")
+    int robustMaxScenarios;
+
+    public BaseSolver create(AllocationEngine engine, List<SolverResource> resources, List<SolverProject> projects, SolveOptions options) {
+        return switch (engine) {
+            // A positive time limit turns the greedy result into the starting point of a local search.
+            case GREEDY -> options.improvementTimeLimitMs() > 0
+                    ? new LocalSearchSolver(resources, projects, options.strategy(),
+                    Math.min(options.improvementTimeLimitMs(), maxImprovementMs))
+                    : presolveEnabled
+                    ? PresolvingSolver.greedy(resources, projects, options.strategy(), parallelGreedy(projects))
+                    : parallelGreedy(projects)
+                    ? new ParallelGreedySolver(resources, projects, options.strategy())
+                    : new GreedyAssignmentSolver(resources, projects, options.strategy());
+            case LINEAR_PROGRAMMING -> presolveEnabled
+                    ? PresolvingSolver.linearProgramming(resources, projects)
+                    : new MaximizeResourceUsage(resources, projects);
+            case PROJECT_SELECTION -> createProjectSelection(resources, projects, options);
+            case FAIR_SHARE -> new FairShareSolver(resources, projects);
+            case MIN_COST_FLOW -> new MinCostFlowSolver(resources, projects, options.substitutionGroups());
+            case LEXICOGRAPHIC -> presolveEnabled
+                    ? PresolvingSolver.lexicographic(resources, projects)
+                    : new LexicographicSolver(resources, projects);
+        };
+    }
+
+    // Typed for callers that read the selection report
+    public ProjectSelectionSolver createProjectSelection(List<SolverResource> resources, List<SolverProject> projects,
+                                                         SolveOptions options) {
+        checkMinCompletion(options.minCompletion());
+        return new ProjectSelectionSolver(resources, projects, options.minCompletion(), selectionTimeLimit);
+    }
+
+    // 0 is the unset field, which asks for the whole requirement; anything else outside (0, 1] is the caller's mistake
+    public static void checkMinCompletion(double minCompletion) {
+        if (!(minCompletion >= 0 && minCompletion <= 1)) {
+            throw new IllegalArgumentException("min_completion must be in (0, 1], or 0 for the whole requirement");
+        }
+    }
+
+    public RobustAllocationSolver createRobust(List<SolverResource> resources, List<SolverProject> projects,
+                                               SolveOptions options, RobustOptions robust) {
+        if (robust.getScenarios() < 0 || robust.getCapacityVariation() < 0
+                || robust.getReliability() < 0 || robust.getReliability() > 1) {
+            throw new IllegalArgumentException("Scenarios and capacity variation must not be negative, reliability must be in (0, 1]");
+        }
+        int scenarios = robust.getScenarios() > 0 ? Math.min(robust.getScenarios(), robustMaxScenarios) : robustDefaultScenarios;
+        RobustAllocationSolver.Noise noise = switch (robust.getNoise()) {
+            case NOISE_UNIFORM -> RobustAllocationSolver.Noise.UNIFORM;
+            case NOISE_EXPONENTIAL -> RobustAllocationSolver.Noise.EXPONENTIAL;
+            default -> RobustAllocationSolver.Noise.NORMAL;
+        };
+        return new RobustAllocationSolver(resources, projects, options.strategy(), new RobustAllocationSolver.Uncertainty(
+                scenarios, noise,
+                robust.getCapacityVariation() > 0 ? robust.getCapacityVariation() : 0.1,
+                robust.getReliability() > 0 ? robust.getReliability() : 0.9,
+                robust.getSeed()));
+    }
+
+    private boolean parallelGreedy(List<SolverProject> projects) {
+        return parallelGreedyMinProjects > 0 && projects.size() >= parallelGreedyMinProjects;
+    }
+}
@@ -0,0 +1,86 @@
+package org.acme.opt.snapshot;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.SolverStrategy;
+import org.acme.opt.models.enums.AllocationEngine;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Writes every incoming request as a snapshot when allocation.snapshot.capture-dir is set, for later replay. Writes
+// (and their fsync) run on one background thread; when allocation.snapshot.queue-size snapshots are already waiting,
+// new ones are dropped rather than held on the heap.
+@ApplicationScoped
+public class SnapshotCapture {
+
+    @ConfigProperty(name = "allocation.snapshot.capture-dir")
+    Optional<String> captureDir;
+
+    @ConfigProperty(name = "allocation.snapshot.queue-size", defaultValue = "32")
+    int queueSize;
+
+    private ThreadPoolExecutor writer;
+
+    public void capture(AllocationEngine engine, SolverStrategy strategy, List<SolverResource> resources, List<SolverProject> projects) {
+        if (captureDir.isEmpty()) {
+            return;
+        }
+        // Only the final fields of resources and projects are read, so solving them meanwhile is safe
+        try {
+            writer().execute(() -> write(engine, strategy, resources, projects));
+        } catch (RejectedExecutionException e) {
+            System.err.println("Snapshot queue full, dropping " + engine.name().toLowerCase() + " snapshot");
+        }
+    }
+
+    private void write(AllocationEngine engine, SolverStrategy strategy, List<SolverResource> resources, List<SolverProject> projects) {
+        try {
+            Path dir = Files.createDirectories(Path.of(captureDir.get()));
+            Path file = dir.resolve(engine.name().toLowerCase() + "-" + System.currentTimeMillis() + "-" + UUID.randomUUID() + ".snap");
+            new SnapshotWriter(engine, strategy).write(file, resources, projects);
+        } catch (IOException e) {
+            System.err.println("Error writing snapshot: " + e.getMessage());
+        }
+    }
+
+    private synchronized ThreadPoolExecutor writer() {
+        if (writer == null) {
+            writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "snapshot-writer");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        return writer;
+    }
+
+    // Lets the snapshots already queued reach the disk
+    @PreDestroy
+    synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("Dropping " + writer.shutdownNow().size() + " queued snapshots on shutdown");
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
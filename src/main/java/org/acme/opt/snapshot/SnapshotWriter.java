@@ -0,0 +1,65 @@
+package org.acme.opt.snapshot;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.SolverStrategy;
+import org.acme.opt.models.enums.AllocationEngine;
+import org.acme.opt.offheap.OffHeapAllocation;
+import org.acme.opt.offheap.OffHeapProblem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Write side of the snapshot format described in {@link Snapshot}. Files are written to a temporary sibling and
+ * moved into place, so a reader never maps a half-written snapshot.
+ */
+public class SnapshotWriter {
+    private final AllocationEngine engine;
+    private final SolverStrategy strategy;
+
+    public SnapshotWriter(AllocationEngine engine, SolverStrategy strategy) {
+        this.engine = engine;
+        this.strategy = strategy;
+    }
+
+    public void write(Path file, List<SolverResource> resources, List<SolverProject> projects) throws IOException {
+        write(file, OffHeapProblem.from(resources, projects), null);
+    }
+
+    public void write(Path file, OffHeapProblem problem, OffHeapAllocation allocation) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long problemOffset = Snapshot.HEADER_BYTES;
+            long allocationOffset = problem.writeTo(channel, problemOffset);
+            long end = allocation != null ? allocation.writeTo(channel, allocationOffset) : allocationOffset;
+
+            ByteBuffer header = ByteBuffer.allocate(Snapshot.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(Snapshot.MAGIC)
+                    .putInt(Snapshot.VERSION)
+                    .putInt(allocation != null ? Snapshot.FLAG_ALLOCATION : 0)
+                    .putInt(engine.ordinal())
+                    .putInt(strategy.strategy().ordinal())
+                    .putInt(strategy.order().ordinal())
+                    .putLong(System.currentTimeMillis())
+                    .putLong(problemOffset)
+                    .putLong(allocationOffset - problemOffset)
+                    .putLong(allocation != null ? allocationOffset : 0)
+                    .putLong(end - allocationOffset);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(false);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
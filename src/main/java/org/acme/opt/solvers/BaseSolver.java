@@ -15,6 +15,20 @@ public interface BaseSolver {
     Map<SolverProject, List<SolverResource>> solve();
 
     default double calculateProjectCompletion(SolverProject solverProject, List<SolverResource> assignedSolverResources) {
+        double percentage = weightedPercentage(solverProject, assignedSolverResources);
+        System.out.println("Weighted Percentage: " + percentage);
+        return Math.round(percentage);
+    }
+
+    // weightedPercentage rounded, from a project's totals: weighting each requirement by its size leaves the units
+    // assigned over the units required. Solvers that track per-entry amounts use it instead of building the lists.
+    static double completion(long assigned, long required) {
+        return required > 0 ? Math.round((double) assigned / required * 100) : 0;
+    }
+
+    // Completion before rounding, every requirement weighted by its size; solvers that run in parallel call it
+    // directly instead of logging every project.
+    static double weightedPercentage(SolverProject solverProject, List<SolverResource> assignedSolverResources) {
         Map<String, Integer> requirements = solverProject.getRequirements();
         Map<String, Double> fulfilled = new HashMap<>();
 
@@ -42,9 +56,7 @@ public interface BaseSolver {
             totalWeight += requirements.get(completion_entry.getKey());
         }
 
-        System.out.println("Weighted Percentage: " + totalRequirements / totalWeight);
-
-        return Math.round(totalRequirements / totalWeight);
+        return totalRequirements / totalWeight;
 
 
 //        for (Map.Entry<String, Integer> requirement : requirements.entrySet()) {
@@ -0,0 +1,187 @@
+package org.acme.opt.solvers;
+
+import org.acme.opt.models.IndexedProblem;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+
+import java.util.*;
+
+/**
+ * Weighted max-min fair allocation by progressive water-filling.
+ * <p>
+ * Every project receives the same fraction of each of its requirements, and the fractions rise together: at level
+ * {@code t} project p is at {@code min(1, (1 + priority) * t)}. When a resource runs out, the projects using it
+ * freeze at their current fraction, and the level keeps rising for the others. Resource saturations and project
+ * completions are events in a heap, and each freeze updates only the resources of the frozen project, so the whole
+ * fill is O(nnz log(P + R)) with no LP solve.
+ * <p>
+ * Requirements on resources with no capacity are left out of the fill, since they would freeze their project at zero.
+ * The fractional shares are then floored. Each resource's leftover (rounding remainders, plus capacity that the
+ * bottlenecks elsewhere left unused) goes to its projects in increasing order of fair share. Nobody's share is
+ * lowered by this top-up.
+ */
+public class FairShareSolver implements BaseSolver {
+    private static final double EPSILON = 1e-9;
+
+    private final List<SolverResource> resources;
+    private final List<SolverProject> projects;
+
+    public FairShareSolver(List<SolverResource> resources, List<SolverProject> projects) {
+        this.resources = resources;
+        this.projects = projects;
+    }
+
+    @Override
+    public Map<SolverProject, List<SolverResource>> solve() {
+        IndexedProblem problem = new IndexedProblem(resources, projects);
+        double[] share = new Fill(problem).run();
+        return problem.toResult(round(problem, share));
+    }
+
+    // Floors the fair shares, then hands out what every resource has left, lowest share first.
+    private static int[] round(IndexedProblem problem, double[] share) {
+        int[] rowStart = problem.getRowStart();
+        int[] entryProject = problem.getEntryProject();
+        int[] entryResource = problem.getEntryResource();
+        int[] entryRequirement = problem.getEntryRequirement();
+        int[] columnStart = problem.getColumnStart();
+        int[] columnEntries = problem.getColumnEntries();
+
+        int[] allocated = new int[problem.nonZeros()];
+        int[] remaining = problem.getCapacity().clone();
+        for (int p = 0; p < problem.numProjects(); p++) {
+            for (int k = rowStart[p]; k < rowStart[p + 1]; k++) {
+                int r = entryResource[k];
+                if (entryRequirement[k] > 0 && remaining[r] > 0) {
+                    int fair = (int) Math.floor(share[p] * entryRequirement[k] + EPSILON);
+                    allocated[k] = Math.min(Math.min(entryRequirement[k], fair), remaining[r]);
+                    remaining[r] -= allocated[k];
+                }
+            }
+        }
+        for (int r = 0; r < problem.numResources(); r++) {
+            if (remaining[r] <= 0) {
+                continue;
+            }
+            Integer[] entries = new Integer[columnStart[r + 1] - columnStart[r]];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = columnEntries[columnStart[r] + i];
+            }
+            Arrays.sort(entries, Comparator.comparingDouble((Integer k) -> share[entryProject[k]]));
+            for (int k : entries) {
+                if (remaining[r] == 0) {
+                    break;
+                }
+                int extra = Math.max(0, Math.min(entryRequirement[k] - allocated[k], remaining[r]));
+                allocated[k] += extra;
+                remaining[r] -= extra;
+            }
+        }
+        return allocated;
+    }
+
+    private record Event(double level, int resource, int project, int version) {
+    }
+
+    // State of one water-filling run; a resource's load at level t is fixedLoad + slope * t until it saturates.
+    private static final class Fill {
+        private final IndexedProblem problem;
+        private final double[] weight;
+        private final double[] share;
+        private final boolean[] active;
+        private final double[] fixedLoad;
+        private final double[] slope;
+        private final boolean[] saturated;
+        private final int[] version;
+        private final PriorityQueue<Event> events = new PriorityQueue<>(Comparator.comparingDouble(Event::level));
+
+        Fill(IndexedProblem problem) {
+            this.problem = problem;
+            int numProjects = problem.numProjects();
+            int numResources = problem.numResources();
+            weight = new double[numProjects];
+            share = new double[numProjects];
+            active = new boolean[numProjects];
+            fixedLoad = new double[numResources];
+            slope = new double[numResources];
+            saturated = new boolean[numResources];
+            version = new int[numResources];
+        }
+
+        double[] run() {
+            int[] rowStart = problem.getRowStart();
+            int[] entryResource = problem.getEntryResource();
+            int[] entryRequirement = problem.getEntryRequirement();
+            int[] capacity = problem.getCapacity();
+
+            for (int p = 0; p < problem.numProjects(); p++) {
+                weight[p] = Math.max(1, 1 + problem.getPriority()[p]);
+                for (int k = rowStart[p]; k < rowStart[p + 1]; k++) {
+                    if (filled(k)) {
+                        slope[entryResource[k]] += weight[p] * entryRequirement[k];
+                        active[p] = true;
+                    }
+                }
+                if (active[p]) {
+                    events.add(new Event(1 / weight[p], -1, p, 0));
+                }
+            }
+            for (int r = 0; r < problem.numResources(); r++) {
+                if (slope[r] > 0) {
+                    events.add(new Event(capacity[r] / slope[r], r, -1, 0));
+                }
+            }
+
+            int[] columnStart = problem.getColumnStart();
+            int[] columnEntries = problem.getColumnEntries();
+            int[] entryProject = problem.getEntryProject();
+            while (!events.isEmpty()) {
+                Event event = events.poll();
+                int r = event.resource();
+                if (r < 0) {
+                    if (active[event.project()]) {
+                        freeze(event.project(), 1, event.level());
+                    }
+                } else if (!saturated[r] && event.version() == version[r]) {
+                    saturated[r] = true;
+                    for (int i = columnStart[r]; i < columnStart[r + 1]; i++) {
+                        int p = entryProject[columnEntries[i]];
+                        if (active[p]) {
+                            freeze(p, Math.min(1, weight[p] * event.level()), event.level());
+                        }
+                    }
+                }
+            }
+            return share;
+        }
+
+        private boolean filled(int k) {
+            return problem.getEntryRequirement()[k] > 0 && problem.getCapacity()[problem.getEntryResource()[k]] > 0;
+        }
+
+        // Stops project p at the given share and moves its load on every resource from the rising to the fixed part.
+        private void freeze(int p, double projectShare, double level) {
+            active[p] = false;
+            share[p] = projectShare;
+            int[] entryResource = problem.getEntryResource();
+            int[] entryRequirement = problem.getEntryRequirement();
+            for (int k = problem.getRowStart()[p]; k < problem.getRowStart()[p + 1]; k++) {
+                int r = entryResource[k];
+                if (!filled(k)) {
+                    continue;
+                }
+                fixedLoad[r] += projectShare * entryRequirement[k];
+                slope[r] -= weight[p] * entryRequirement[k];
+                if (saturated[r]) {
+                    continue;
+                }
+                version[r]++;
+                if (slope[r] > EPSILON) {
+                    events.add(new Event(Math.max(level, (problem.getCapacity()[r] - fixedLoad[r]) / slope[r]), r, -1, version[r]));
+                } else {
+                    slope[r] = 0;
+                }
+            }
+        }
+    }
+}
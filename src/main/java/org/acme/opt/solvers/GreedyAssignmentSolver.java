@@ -8,6 +8,7 @@ import org.acme.opt.models.enums.GreedyOrder;
 import org.acme.opt.models.enums.GreedyStrategy;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 @AllArgsConstructor
@@ -19,17 +20,15 @@ public class GreedyAssignmentSolver implements BaseSolver{
 
     @Override
     public Map<SolverProject, List<SolverResource>> solve() {
-        // Determine the comparator based on the chosen criteria
-        Comparator<SolverProject> comparator = getProjectComparator(strategy.strategy());
-
-        // Apply the order if it's known
-        if (strategy.order() == GreedyOrder.LARGEST_FIRST) {
-            comparator = comparator.reversed();
-        } // SMALLEST_FIRST is default ascending order
+        return solve((project, assigned) -> {
+        });
+    }
 
+    // Same as solve(), but hands every project to the listener as soon as its allocation is final.
+    public Map<SolverProject, List<SolverResource>> solve(BiConsumer<SolverProject, List<SolverResource>> listener) {
         // Sort projects using the comparator
         List<SolverProject> sortedProjects = projects.stream()
-                .sorted(comparator)
+                .sorted(projectOrder(strategy))
                 .toList();
 
         // Initialize result map and available resources
@@ -42,18 +41,14 @@ public class GreedyAssignmentSolver implements BaseSolver{
         for (SolverProject project : sortedProjects) {
             List<SolverResource> assignedResources = findResourcesForProject(project, availableResources);
             if (!assignedResources.isEmpty()) {
+                // Later projects never take from earlier ones, so completion is known right away
+                double completion = calculateProjectCompletion(project, assignedResources);
+                project.setCompletionRate(String.valueOf(completion));
                 allocation.put(project, assignedResources);
+                listener.accept(project, assignedResources);
             }
         }
 
-        for (Map.Entry<SolverProject, List<SolverResource>> entry : allocation.entrySet()) {
-            SolverProject project = entry.getKey();
-            List<SolverResource> assigned = entry.getValue();
-            double completion = calculateProjectCompletion(project, assigned);
-            project.setCompletionRate(String.valueOf(completion));
-            allocation.put(project, assigned);
-        }
-
         return allocation;
     }
 
@@ -83,7 +78,20 @@ public class GreedyAssignmentSolver implements BaseSolver{
         return assignedResources;
     }
 
-    private Comparator<SolverProject> getProjectComparator(GreedyStrategy strategy) {
+    // Order in which the greedy visits projects; shared with the solvers that start from a greedy construction.
+    public static Comparator<SolverProject> projectOrder(SolverStrategy strategy) {
+        // Determine the comparator based on the chosen criteria
+        Comparator<SolverProject> comparator = getProjectComparator(strategy.strategy());
+
+        // Apply the order if it's known
+        if (strategy.order() == GreedyOrder.LARGEST_FIRST) {
+            comparator = comparator.reversed();
+        } // SMALLEST_FIRST is default ascending order
+
+        return comparator;
+    }
+
+    private static Comparator<SolverProject> getProjectComparator(GreedyStrategy strategy) {
         return switch (strategy) {
             case PROJECT_SIZE -> Comparator.comparingInt(p ->
                     p.getRequirements().values().stream().mapToInt(Integer::intValue).sum());
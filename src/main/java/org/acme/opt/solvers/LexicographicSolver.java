@@ -0,0 +1,140 @@
+package org.acme.opt.solvers;
+
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPObjective;
+import com.google.ortools.linearsolver.MPSolver;
+import com.google.ortools.linearsolver.MPVariable;
+import org.acme.opt.models.IndexedProblem;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.profiling.SolverPhaseEvent;
+import org.acme.opt.profiling.SolverPhaseEvent.Phase;
+import org.jboss.logging.Logger;
+
+import java.util.*;
+
+/**
+ * The LP's allocation with strict priorities: no unit goes to a project while a project of a higher tier could still
+ * use it. Tiers are the LP's weights ({@code 1 + priority}, priorities below 0 counting as 0), highest first.
+ * <p>
+ * Each tier is solved on the capacity the tiers above it left, their usage being fixed. Within a tier all units weigh
+ * the same, so a resource whose tier demand fits is granted in full, and one sought by a single project of the tier
+ * gives it what is left. Only the resources several projects of the tier compete for go into a small GLOP model with
+ * unit weights. That model stays well conditioned at any priority, where the weighted LP's coefficients span the whole
+ * priority range.
+ */
+public class LexicographicSolver implements BaseSolver {
+    private static final Logger LOG = Logger.getLogger(LexicographicSolver.class);
+    private static final double EPSILON = 1e-6;
+
+    private final List<SolverResource> resources;
+    private final List<SolverProject> projects;
+
+    public LexicographicSolver(List<SolverResource> resources, List<SolverProject> projects) {
+        this.resources = resources;
+        this.projects = projects;
+    }
+
+    @Override
+    public Map<SolverProject, List<SolverResource>> solve() {
+        IndexedProblem problem = new IndexedProblem(resources, projects);
+        int[] rowStart = problem.getRowStart();
+        int[] entryResource = problem.getEntryResource();
+        int[] entryRequirement = problem.getEntryRequirement();
+        int[] remaining = problem.getCapacity().clone();
+        int[] allocated = new int[problem.nonZeros()];
+
+        TreeMap<Integer, List<Integer>> tiers = new TreeMap<>(Comparator.reverseOrder());
+        for (int p = 0; p < problem.numProjects(); p++) {
+            tiers.computeIfAbsent(Math.max(0, problem.getPriority()[p]), t -> new ArrayList<>()).add(p);
+        }
+
+        int solved = 0;
+        long[] demand = new long[problem.numResources()];
+        int[] competing = new int[problem.numResources()];
+        for (Map.Entry<Integer, List<Integer>> tier : tiers.entrySet()) {
+            List<Integer> members = tier.getValue();
+            Set<Integer> touched = new LinkedHashSet<>();
+            for (int p : members) {
+                for (int k = rowStart[p]; k < rowStart[p + 1]; k++) {
+                    int r = entryResource[k];
+                    if (entryRequirement[k] > 0 && remaining[r] > 0) {
+                        demand[r] += entryRequirement[k];
+                        competing[r]++;
+                        touched.add(r);
+                    }
+                }
+            }
+
+            List<Integer> contested = new ArrayList<>();
+            for (int p : members) {
+                for (int k = rowStart[p]; k < rowStart[p + 1]; k++) {
+                    int r = entryResource[k];
+                    if (entryRequirement[k] <= 0 || remaining[r] <= 0) {
+                        continue;
+                    }
+                    if (demand[r] <= remaining[r] || competing[r] == 1) {
+                        allocated[k] = Math.min(entryRequirement[k], remaining[r]);
+                    } else {
+                        contested.add(k);
+                    }
+                }
+            }
+            if (!contested.isEmpty()) {
+                solveContested(problem, tier.getKey(), members, contested, remaining, allocated);
+                solved++;
+            }
+
+            for (int r : touched) {
+                demand[r] = 0;
+                competing[r] = 0;
+            }
+            for (int p : members) {
+                for (int k = rowStart[p]; k < rowStart[p + 1]; k++) {
+                    remaining[entryResource[k]] -= allocated[k];
+                }
+            }
+        }
+
+        LOG.debugf("Lexicographic: %d tiers, %d solved with GLOP", tiers.size(), solved);
+        return problem.toResult(allocated);
+    }
+
+    // Maximizes the units of one tier on the resources its projects compete for, within what is left of them.
+    private void solveContested(IndexedProblem problem, int priority, List<Integer> members, List<Integer> contested,
+                                int[] remaining, int[] allocated) {
+        NativeLibraries.ensureLoaded();
+        List<SolverProject> tierProjects = members.stream().map(projects::get).toList();
+        SolverPhaseEvent build = SolverPhaseEvent.start(Phase.MODEL_BUILD, getClass().getSimpleName());
+        MPSolver solver = MPSolver.createSolver("GLOP");
+        int[] entryResource = problem.getEntryResource();
+        int[] entryRequirement = problem.getEntryRequirement();
+
+        Map<Integer, MPConstraint> capacity = new HashMap<>();
+        MPObjective objective = solver.objective();
+        MPVariable[] x = new MPVariable[contested.size()];
+        for (int i = 0; i < x.length; i++) {
+            int k = contested.get(i);
+            int r = entryResource[k];
+            x[i] = solver.makeNumVar(0, Math.min(entryRequirement[k], remaining[r]), "x_" + k);
+            capacity.computeIfAbsent(r, c -> solver.makeConstraint(0, remaining[c], "capacity_" + c))
+                    .setCoefficient(x[i], 1);
+            objective.setCoefficient(x[i], 1);
+        }
+        objective.setMaximization();
+        build.end(resources, tierProjects, "");
+
+        SolverPhaseEvent nativeSolve = SolverPhaseEvent.start(Phase.NATIVE_SOLVE, getClass().getSimpleName());
+        MPSolver.ResultStatus status = solver.solve();
+        nativeSolve.end(resources, tierProjects, status.name());
+        if (status == MPSolver.ResultStatus.OPTIMAL || status == MPSolver.ResultStatus.FEASIBLE) {
+            for (int i = 0; i < x.length; i++) {
+                allocated[contested.get(i)] = (int) Math.floor(x[i].solutionValue() + EPSILON);
+            }
+        } else {
+            System.out.println("No solution found for priority tier " + priority + ": " + status);
+        }
+        // One model per tier: release it now rather than when it is collected
+        solver.delete();
+    }
+}
@@ -0,0 +1,266 @@
+package org.acme.opt.solvers;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.acme.opt.models.IndexedProblem;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.SolverStrategy;
+import org.acme.opt.models.enums.GreedyOrder;
+import org.acme.opt.models.enums.GreedyStrategy;
+import org.jboss.logging.Logger;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Greedy construction followed by a time-bounded local search.
+ * <p>
+ * The objective is the LP's weighted usage, sum over projects of (1 + priority) * allocated units, plus a bonus of
+ * {@code COMPLETION_BONUS * (1 + priority) * size} for every fully satisfied project, so capacity moves towards
+ * high-priority projects and partial allocations are consolidated into complete ones. Two moves are used, both
+ * between projects sharing a resource and both evaluated with O(1) incremental deltas:
+ * <ul>
+ *     <li>reassign: move units of a resource from one project to another that is short of it;</li>
+ *     <li>swap: project a gives units of resource r to b while b gives units of resource s back to a.</li>
+ * </ul>
+ * Several starts (the requested order, other greedy orders and random orders) run in parallel until the deadline
+ * and the best one wins. Because the search is time-bounded, the chosen solution can vary between runs.
+ */
+@RequiredArgsConstructor
+public class LocalSearchSolver implements BaseSolver {
+    private static final Logger LOG = Logger.getLogger(LocalSearchSolver.class);
+    private static final double COMPLETION_BONUS = 0.1;
+    private static final double EPSILON = 1e-9;
+
+    public record Report(double constructionObjective, double improvedObjective, long moves, int starts,
+                         int bestStart, long elapsedMillis) {
+        public double improvementPercentage() {
+            return constructionObjective > 0 ? (improvedObjective - constructionObjective) / constructionObjective * 100 : 0;
+        }
+    }
+
+    private final List<SolverResource> resources;
+    private final List<SolverProject> projects;
+    private final SolverStrategy strategy;
+    private final long timeLimitMillis;
+
+    @Getter
+    private Report report;
+
+    @Override
+    public Map<SolverProject, List<SolverResource>> solve() {
+        long start = System.currentTimeMillis();
+        long deadline = start + timeLimitMillis;
+        IndexedProblem problem = new IndexedProblem(resources, projects);
+        double[] weight = Arrays.stream(problem.getPriority()).mapToDouble(p -> 1.0 + Math.max(0, p)).toArray();
+        int starts = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+        List<Search> searches = IntStream.range(0, starts).parallel()
+                .mapToObj(i -> {
+                    Search search = new Search(problem, weight, startOrder(problem, i), new SplittableRandom(42 + i));
+                    search.run(deadline);
+                    return search;
+                })
+                .toList();
+
+        Search best = searches.get(0);
+        for (Search search : searches) {
+            if (search.objective > best.objective + EPSILON) {
+                best = search;
+            }
+        }
+
+        long moves = searches.stream().mapToLong(s -> s.moves).sum();
+        report = new Report(searches.get(0).constructionObjective, best.objective, moves, starts,
+                searches.indexOf(best), System.currentTimeMillis() - start);
+        LOG.debugf("Local search: %.2f -> %.2f (+%.2f%%) with %d moves over %d starts",
+                report.constructionObjective(), report.improvedObjective(), report.improvementPercentage(), moves, starts);
+
+        return problem.toResult(best.allocated);
+    }
+
+    // Start 0 is the order the client asked for, then the other greedy orders, then random orders.
+    private int[] startOrder(IndexedProblem problem, int start) {
+        SolverStrategy startStrategy = switch (start) {
+            case 0 -> strategy;
+            case 1 -> new SolverStrategy(GreedyStrategy.ASSOCIATION_ACTIVITY, GreedyOrder.LARGEST_FIRST);
+            case 2 -> new SolverStrategy(GreedyStrategy.PROJECT_SIZE, GreedyOrder.SMALLEST_FIRST);
+            case 3 -> new SolverStrategy(GreedyStrategy.PROJECT_SIZE, GreedyOrder.LARGEST_FIRST);
+            default -> null;
+        };
+        if (startStrategy != null) {
+            return problem.order(GreedyAssignmentSolver.projectOrder(startStrategy));
+        }
+        int[] order = IntStream.range(0, problem.numProjects()).toArray();
+        SplittableRandom random = new SplittableRandom(start);
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    private static final class Search {
+        private final IndexedProblem problem;
+        private final double[] weight;
+        private final SplittableRandom random;
+        private final int[] allocated;
+        private final long[] assigned;
+        private final int[] free;
+        private final double constructionObjective;
+        private double objective;
+        private long moves;
+
+        Search(IndexedProblem problem, double[] weight, int[] order, SplittableRandom random) {
+            this.problem = problem;
+            this.weight = weight;
+            this.random = random;
+            this.allocated = problem.greedy(order, problem.getCapacity());
+            this.assigned = new long[problem.numProjects()];
+            this.free = problem.getCapacity().clone();
+            for (int k = 0; k < allocated.length; k++) {
+                assigned[problem.getEntryProject()[k]] += allocated[k];
+                free[problem.getEntryResource()[k]] -= allocated[k];
+            }
+            for (int p = 0; p < assigned.length; p++) {
+                objective += value(p, assigned[p]);
+            }
+            this.constructionObjective = objective;
+        }
+
+        private double value(int project, long units) {
+            long size = problem.getProjectSize()[project];
+            double bonus = size > 0 && units >= size ? COMPLETION_BONUS * weight[project] * size : 0;
+            return weight[project] * units + bonus;
+        }
+
+        private double change(int project, long delta) {
+            return value(project, assigned[project] + delta) - value(project, assigned[project]);
+        }
+
+        private void apply(int entry, int delta) {
+            allocated[entry] += delta;
+            assigned[problem.getEntryProject()[entry]] += delta;
+            free[problem.getEntryResource()[entry]] -= delta;
+        }
+
+        void run(long deadline) {
+            fillFreeCapacity();
+            int[] columnStart = problem.getColumnStart();
+            if (problem.nonZeros() == 0) {
+                return;
+            }
+            long idleLimit = Math.max(10_000L, 20L * problem.nonZeros());
+            long idle = 0;
+            for (long iteration = 0; idle < idleLimit; iteration++) {
+                if ((iteration & 1023) == 0 && System.currentTimeMillis() >= deadline) {
+                    break;
+                }
+                int resource = problem.getEntryResource()[random.nextInt(problem.nonZeros())];
+                int from = columnStart[resource];
+                int to = columnStart[resource + 1];
+                if (to - from < 2) {
+                    idle++;
+                    continue;
+                }
+                int receiver = sampleEntry(from, to, true);
+                int giver = sampleEntry(from, to, false);
+                boolean improved = receiver >= 0 && giver >= 0
+                        && (random.nextBoolean() ? tryReassign(giver, receiver) || trySwap(giver, receiver)
+                                                 : trySwap(giver, receiver) || tryReassign(giver, receiver));
+                if (improved) {
+                    moves++;
+                    idle = 0;
+                } else {
+                    idle++;
+                }
+            }
+        }
+
+        // Hands out capacity nobody uses, highest weight first; never decreases the objective.
+        private void fillFreeCapacity() {
+            int[] columnStart = problem.getColumnStart();
+            int[] columnEntries = problem.getColumnEntries();
+            for (int r = 0; r < problem.numResources(); r++) {
+                if (free[r] <= 0) {
+                    continue;
+                }
+                Integer[] entries = IntStream.range(columnStart[r], columnStart[r + 1])
+                        .mapToObj(i -> columnEntries[i])
+                        .sorted(Comparator.comparingDouble((Integer k) -> -weight[problem.getEntryProject()[k]]))
+                        .toArray(Integer[]::new);
+                for (int k : entries) {
+                    int amount = Math.min(free[r], problem.getEntryRequirement()[k] - allocated[k]);
+                    if (amount > 0) {
+                        objective += change(problem.getEntryProject()[k], amount);
+                        apply(k, amount);
+                    }
+                }
+            }
+        }
+
+        // A few random probes for an entry that is short of the resource (receiver) or holds some of it (giver).
+        private int sampleEntry(int from, int to, boolean receiver) {
+            int[] columnEntries = problem.getColumnEntries();
+            for (int attempt = 0; attempt < 8; attempt++) {
+                int k = columnEntries[from + random.nextInt(to - from)];
+                boolean matches = receiver ? allocated[k] < problem.getEntryRequirement()[k] : allocated[k] > 0;
+                if (matches) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+
+        private boolean tryReassign(int giver, int receiver) {
+            if (giver == receiver) {
+                return false;
+            }
+            int amount = Math.min(allocated[giver], problem.getEntryRequirement()[receiver] - allocated[receiver]);
+            int giverProject = problem.getEntryProject()[giver];
+            int receiverProject = problem.getEntryProject()[receiver];
+            double delta = change(giverProject, -amount) + change(receiverProject, amount);
+            if (amount <= 0 || delta <= EPSILON) {
+                return false;
+            }
+            apply(giver, -amount);
+            apply(receiver, amount);
+            objective += delta;
+            return true;
+        }
+
+        // giver's project hands resource r to receiver's project, which hands back some resource s it holds.
+        private boolean trySwap(int giver, int receiver) {
+            int a = problem.getEntryProject()[giver];
+            int b = problem.getEntryProject()[receiver];
+            if (a == b) {
+                return false;
+            }
+            int[] rowStart = problem.getRowStart();
+            int rowLength = rowStart[b + 1] - rowStart[b];
+            int back = rowStart[b] + random.nextInt(rowLength);
+            int backToA = problem.entryOf(a, problem.getEntryResource()[back]);
+            if (back == receiver || backToA < 0 || allocated[back] <= 0) {
+                return false;
+            }
+            int forward = Math.min(allocated[giver], problem.getEntryRequirement()[receiver] - allocated[receiver]);
+            int backward = Math.min(allocated[back], problem.getEntryRequirement()[backToA] - allocated[backToA]);
+            if (forward <= 0 || backward <= 0) {
+                return false;
+            }
+            double delta = change(a, backward - forward) + change(b, forward - backward);
+            if (delta <= EPSILON) {
+                return false;
+            }
+            apply(giver, -forward);
+            apply(receiver, forward);
+            apply(back, -backward);
+            apply(backToA, backward);
+            objective += delta;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.acme.opt.solvers;
+
+import org.acme.opt.models.IndexedProblem;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+
+import java.util.*;
+
+/**
+ * Sensitivity of the {@link MaximizeResourceUsage} LP, without solving it again.
+ * <p>
+ * Every row of that LP is an independent fractional knapsack: the capacity of one resource, shared by unit-coefficient
+ * variables bounded by each requirement and weighted by {@code 1 + priority}. Its optimum fills projects by decreasing
+ * weight, so the duals follow from the same data GLOP sees:
+ * <ul>
+ *     <li>shadow price: objective gain per extra unit of capacity, i.e. the weight of the heaviest project whose
+ *     requirement is not fully met (0 when the resource has spare capacity);</li>
+ *     <li>ranging: the capacities {@code [lower, upper)} over which that price holds, the breakpoints being the
+ *     cumulative demand of the weight classes;</li>
+ *     <li>reduced costs: {@code weight - y}, where y is the weight of the lightest project still served on that
+ *     resource. This is the objective lost per unit forced to a project that the optimum leaves out, and the
+ *     priority increase it would need to get in.</li>
+ * </ul>
+ * Resources that are required but missing from the request appear with zero capacity: every unit of them is worth the
+ * heaviest weight that requires them.
+ */
+public final class LpSensitivity {
+
+    public record ResourceSensitivity(String resourceId, int capacity, long demand, long used, double shadowPrice,
+                                      long rangeLower, long rangeUpper, int cost) {
+        public long unmetDemand() {
+            return demand - used;
+        }
+    }
+
+    public record ReducedCost(String projectId, String resourceId, double reducedCost) {
+    }
+
+    // objective is the LP optimum, the upper bound every engine's weighted usage is measured against
+    public record Report(List<ResourceSensitivity> resources, List<ReducedCost> reducedCosts, double objective) {
+        // Resources where extra capacity pays the most per unit of cost, then those missing the most units
+        public List<ResourceSensitivity> bottlenecks(int k) {
+            return resources.stream()
+                    .filter(r -> r.shadowPrice() > 0)
+                    .sorted(Comparator.comparingDouble((ResourceSensitivity r) -> r.shadowPrice() / Math.max(1, r.cost())).reversed()
+                            .thenComparing(Comparator.comparingLong(ResourceSensitivity::unmetDemand).reversed()))
+                    .limit(k)
+                    .toList();
+        }
+    }
+
+    private LpSensitivity() {
+    }
+
+    // Same objective coefficient as MaximizeResourceUsage
+    public static double weight(SolverProject project) {
+        return project.getPriority() >= 0 ? 1.0 + project.getPriority() : 1.0;
+    }
+
+    public static Report analyze(List<SolverResource> resources, List<SolverProject> projects) {
+        IndexedProblem problem = new IndexedProblem(resources, projects);
+        int[] entryProject = problem.getEntryProject();
+        int[] entryRequirement = problem.getEntryRequirement();
+        int[] columnStart = problem.getColumnStart();
+        int[] columnEntries = problem.getColumnEntries();
+
+        List<ResourceSensitivity> sensitivities = new ArrayList<>();
+        List<ReducedCost> reducedCosts = new ArrayList<>();
+        double objective = 0;
+        for (int r = 0; r < problem.numResources(); r++) {
+            Integer[] entries = new Integer[columnStart[r + 1] - columnStart[r]];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = columnEntries[columnStart[r] + i];
+            }
+            Arrays.sort(entries, Comparator.comparingDouble((Integer k) -> weight(projects.get(entryProject[k]))).reversed());
+
+            int capacity = problem.getCapacity()[r];
+            long demand = 0;
+            for (int k : entries) {
+                demand += Math.max(0, entryRequirement[k]);
+            }
+
+            // Walk the weight classes until the capacity runs out
+            double shadowPrice = 0;
+            double lightestServed = 0;
+            long rangeLower = demand;
+            long rangeUpper = -1;
+            long cumulative = 0;
+            for (int i = 0; i < entries.length; ) {
+                double classWeight = weight(projects.get(entryProject[entries[i]]));
+                long classDemand = 0;
+                int j = i;
+                while (j < entries.length && weight(projects.get(entryProject[entries[j]])) == classWeight) {
+                    classDemand += Math.max(0, entryRequirement[entries[j]]);
+                    j++;
+                }
+                if (classDemand > 0 && cumulative < capacity) {
+                    lightestServed = classWeight;
+                    objective += classWeight * Math.min(classDemand, capacity - cumulative);
+                }
+                if (cumulative + classDemand > capacity) {
+                    shadowPrice = classWeight;
+                    rangeLower = cumulative;
+                    rangeUpper = cumulative + classDemand;
+                    break;
+                }
+                cumulative += classDemand;
+                i = j;
+            }
+            if (shadowPrice == 0) {
+                lightestServed = 0;
+            }
+
+            for (int k : entries) {
+                double reducedCost = weight(projects.get(entryProject[k])) - lightestServed;
+                if (entryRequirement[k] > 0 && reducedCost < 0) {
+                    reducedCosts.add(new ReducedCost(projects.get(entryProject[k]).getId(), problem.getResourceIds()[r], reducedCost));
+                }
+            }
+            sensitivities.add(new ResourceSensitivity(problem.getResourceIds()[r], capacity, demand,
+                    Math.min(capacity, demand), shadowPrice, rangeLower, rangeUpper, problem.getResourceCosts()[r]));
+        }
+        return new Report(sensitivities, reducedCosts, objective);
+    }
+}
@@ -1,6 +1,5 @@
 package org.acme.opt.solvers;
 
-import com.google.ortools.Loader;
 import com.google.ortools.linearsolver.MPConstraint;
 import com.google.ortools.linearsolver.MPObjective;
 import com.google.ortools.linearsolver.MPSolver;
@@ -8,6 +7,8 @@ import com.google.ortools.linearsolver.MPVariable;
 import lombok.AllArgsConstructor;
 import org.acme.opt.models.SolverProject;
 import org.acme.opt.models.SolverResource;
+import org.acme.opt.profiling.SolverPhaseEvent;
+import org.acme.opt.profiling.SolverPhaseEvent.Phase;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
@@ -23,7 +24,8 @@ public class MaximizeResourceUsage implements BaseSolver {
 
     @Override
     public Map<SolverProject, List<SolverResource>> solve() {
-        Loader.loadNativeLibraries();
+        NativeLibraries.ensureLoaded();
+        SolverPhaseEvent build = SolverPhaseEvent.start(Phase.MODEL_BUILD, getClass().getSimpleName());
         MPSolver solver = MPSolver.createSolver("GLOP");
 
         // First, aggregate resources by ID to match greedy approach
@@ -74,10 +76,15 @@ public class MaximizeResourceUsage implements BaseSolver {
             }
         }
 
+        build.end(solverResources, solverProjects, "");
+
         // Solve the problem
+        SolverPhaseEvent nativeSolve = SolverPhaseEvent.start(Phase.NATIVE_SOLVE, getClass().getSimpleName());
         MPSolver.ResultStatus status = solver.solve();
+        nativeSolve.end(solverResources, solverProjects, status.name());
 
         // Process results
+        SolverPhaseEvent completionPhase = SolverPhaseEvent.start(Phase.COMPLETION, getClass().getSimpleName());
         Map<SolverProject, List<SolverResource>> assignments = new HashMap<>();
         if (status == MPSolver.ResultStatus.OPTIMAL || status == MPSolver.ResultStatus.FEASIBLE) {
             for (SolverProject project : solverProjects) {
@@ -110,6 +117,7 @@ public class MaximizeResourceUsage implements BaseSolver {
         } else {
             System.out.println("No solution found");
         }
+        completionPhase.end(solverResources, solverProjects, status.name());
 
         return assignments;
     }
@@ -0,0 +1,159 @@
+package org.acme.opt.solvers;
+
+import com.google.ortools.graph.MinCostFlow;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.profiling.SolverPhaseEvent;
+import org.acme.opt.profiling.SolverPhaseEvent.Phase;
+
+import java.util.*;
+
+/**
+ * The LP's allocation (maximize the priority-weighted units allocated) solved as a min-cost flow, which also lets a
+ * requirement be served by interchangeable resources.
+ * <p>
+ * Network: source -> one node per requirement (capacity = requirement, cost = -weight) -> every resource that may
+ * serve it -> sink (capacity = resource capacity). An arc from the source straight to the sink carries the demand that
+ * cannot be served, so the flow is always feasible and the minimum cost is the maximum weighted usage. Without
+ * substitution groups every requirement has a single resource and the result is an optimum of the LP.
+ * <p>
+ * A requirement keyed by a group id may use any resource of the group; one keyed by a resource id may use that
+ * resource and every resource sharing a group with it.
+ */
+public class MinCostFlowSolver implements BaseSolver {
+    private static final int SOURCE = 0;
+    private static final int SINK = 1;
+
+    private final List<SolverResource> resources;
+    private final List<SolverProject> projects;
+    private final Map<String, Set<String>> substitutionGroups;
+    // Completion per project counts what substitutes provided, which the per-resource default cannot see
+    private final Map<SolverProject, Double> completions = new HashMap<>();
+
+    public MinCostFlowSolver(List<SolverResource> resources, List<SolverProject> projects,
+                             Map<String, Set<String>> substitutionGroups) {
+        this.resources = resources;
+        this.projects = projects;
+        this.substitutionGroups = substitutionGroups;
+    }
+
+    @Override
+    public Map<SolverProject, List<SolverResource>> solve() {
+        NativeLibraries.ensureLoaded();
+        SolverPhaseEvent build = SolverPhaseEvent.start(Phase.MODEL_BUILD, getClass().getSimpleName());
+        MinCostFlow flow = new MinCostFlow();
+
+        Map<String, Integer> capacity = new LinkedHashMap<>();
+        Map<String, SolverResource> resourcesById = new HashMap<>();
+        for (SolverResource resource : resources) {
+            capacity.merge(resource.getId(), resource.getAvailableCapacity(), Integer::sum);
+            resourcesById.putIfAbsent(resource.getId(), resource);
+        }
+        Map<String, Integer> resourceNode = new HashMap<>();
+        String[] resourceIds = capacity.keySet().toArray(String[]::new);
+        for (Map.Entry<String, Integer> resource : capacity.entrySet()) {
+            int node = 2 + resourceNode.size();
+            resourceNode.put(resource.getKey(), node);
+            flow.addArcWithCapacityAndUnitCost(node, SINK, Math.max(0, resource.getValue()), 0);
+        }
+
+        Map<String, Set<String>> groupsOfResource = new HashMap<>();
+        substitutionGroups.forEach((group, members) ->
+                members.forEach(id -> groupsOfResource.computeIfAbsent(id, k -> new HashSet<>()).add(group)));
+
+        // Arcs from each requirement to its resources, per project and requirement key
+        Map<SolverProject, Map<String, List<Integer>>> servingArcs = new LinkedHashMap<>();
+        int nextNode = 2 + resourceNode.size();
+        long demand = 0;
+        for (SolverProject project : projects) {
+            long cost = -Math.round(LpSensitivity.weight(project));
+            Map<String, List<Integer>> arcs = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> requirement : project.getRequirements().entrySet()) {
+                List<Integer> nodes = substitutes(requirement.getKey(), groupsOfResource).stream()
+                        .map(resourceNode::get).filter(Objects::nonNull).sorted().toList();
+                if (requirement.getValue() <= 0 || nodes.isEmpty()) {
+                    continue;
+                }
+                int node = nextNode++;
+                flow.addArcWithCapacityAndUnitCost(SOURCE, node, requirement.getValue(), cost);
+                arcs.put(requirement.getKey(), nodes.stream()
+                        .map(resource -> flow.addArcWithCapacityAndUnitCost(node, resource, requirement.getValue(), 0))
+                        .toList());
+                demand += requirement.getValue();
+            }
+            servingArcs.put(project, arcs);
+        }
+        flow.addArcWithCapacityAndUnitCost(SOURCE, SINK, demand, 0);
+        flow.setNodeSupply(SOURCE, demand);
+        flow.setNodeSupply(SINK, -demand);
+
+        build.end(resources, projects, "");
+
+        SolverPhaseEvent nativeSolve = SolverPhaseEvent.start(Phase.NATIVE_SOLVE, getClass().getSimpleName());
+        MinCostFlow.Status status = flow.solve();
+        nativeSolve.end(resources, projects, status.name());
+        if (status != MinCostFlow.Status.OPTIMAL) {
+            System.out.println("No solution found: " + status);
+            return new HashMap<>();
+        }
+
+        SolverPhaseEvent completion = SolverPhaseEvent.start(Phase.COMPLETION, getClass().getSimpleName());
+        Map<SolverProject, List<SolverResource>> assignments = new HashMap<>();
+        servingArcs.forEach((project, arcs) -> {
+            Map<String, Integer> amounts = new TreeMap<>();
+            Map<String, Integer> served = new HashMap<>();
+            arcs.forEach((key, keyArcs) -> {
+                for (int arc : keyArcs) {
+                    int amount = (int) flow.getFlow(arc);
+                    if (amount > 0) {
+                        amounts.merge(resourceIds[flow.getHead(arc) - 2], amount, Integer::sum);
+                        served.merge(key, amount, Integer::sum);
+                    }
+                }
+            });
+            if (amounts.isEmpty()) {
+                return;
+            }
+            List<SolverResource> assigned = new ArrayList<>();
+            amounts.forEach((id, amount) -> {
+                SolverResource resource = resourcesById.get(id);
+                assigned.add(new SolverResource(id, resource.getName(), amount, resource.getCost()));
+            });
+            completions.put(project, completion(project, served));
+            project.setCompletionRate(String.valueOf(completions.get(project)));
+            assignments.put(project, assigned);
+        });
+        completion.end(resources, projects, status.name());
+        return assignments;
+    }
+
+    @Override
+    public double calculateProjectCompletion(SolverProject solverProject, List<SolverResource> assignedSolverResources) {
+        Double completion = completions.get(solverProject);
+        return completion != null ? completion : BaseSolver.super.calculateProjectCompletion(solverProject, assignedSolverResources);
+    }
+
+    private Set<String> substitutes(String key, Map<String, Set<String>> groupsOfResource) {
+        if (substitutionGroups.containsKey(key)) {
+            return substitutionGroups.get(key);
+        }
+        Set<String> groups = groupsOfResource.get(key);
+        if (groups == null) {
+            return Set.of(key);
+        }
+        Set<String> ids = new HashSet<>(Set.of(key));
+        groups.forEach(group -> ids.addAll(substitutionGroups.get(group)));
+        return ids;
+    }
+
+    // Same weighting as the default: every requirement counts in proportion to its size
+    private static double completion(SolverProject project, Map<String, Integer> served) {
+        double fulfilled = 0;
+        double total = 0;
+        for (Map.Entry<String, Integer> requirement : project.getRequirements().entrySet()) {
+            fulfilled += Math.min(served.getOrDefault(requirement.getKey(), 0), requirement.getValue());
+            total += requirement.getValue();
+        }
+        return total > 0 ? Math.round(fulfilled / total * 100) : 0;
+    }
+}
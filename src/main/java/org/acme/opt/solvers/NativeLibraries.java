@@ -0,0 +1,83 @@
+package org.acme.opt.solvers;
+
+import com.google.ortools.Loader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Loads the OR-Tools JNI libraries once, the first time an LP or CP-SAT solver needs them, so that neither startup
+ * nor the greedy path pays for it.
+ * <p>
+ * When {@code -Dortools.native.dir} or {@code ORTOOLS_NATIVE_DIR} points to a directory with the unpacked libraries
+ * (as in the native container image), they are loaded from there. Otherwise OR-Tools' {@link Loader} extracts them
+ * from the platform jar on the classpath, which only works on the JVM.
+ */
+public final class NativeLibraries {
+    public static final String NATIVE_DIR_PROPERTY = "ortools.native.dir";
+    public static final String NATIVE_DIR_ENV = "ORTOOLS_NATIVE_DIR";
+
+    private static volatile boolean loaded;
+
+    private NativeLibraries() {
+    }
+
+    public static void ensureLoaded() {
+        if (!loaded) {
+            synchronized (NativeLibraries.class) {
+                if (!loaded) {
+                    load();
+                    loaded = true;
+                }
+            }
+        }
+    }
+
+    public static boolean isLoaded() {
+        return loaded;
+    }
+
+    private static void load() {
+        long start = System.currentTimeMillis();
+        String dir = System.getProperty(NATIVE_DIR_PROPERTY, System.getenv(NATIVE_DIR_ENV));
+        if (dir != null && !dir.isBlank()) {
+            loadFrom(Path.of(dir));
+        } else {
+            try {
+                Loader.loadNativeLibraries();
+            } catch (RuntimeException | LinkageError e) {
+                throw new IllegalStateException("Could not load the OR-Tools native libraries; set -D" + NATIVE_DIR_PROPERTY
+                        + " or " + NATIVE_DIR_ENV + " to the directory that contains them", e);
+            }
+        }
+        System.out.printf("OR-Tools native libraries loaded in %d ms%n", System.currentTimeMillis() - start);
+    }
+
+    // libortools first, the JNI wrapper that links against it last
+    private static void loadFrom(Path dir) {
+        List<Path> libraries;
+        try (Stream<Path> files = Files.list(dir)) {
+            libraries = files
+                    .filter(f -> f.getFileName().toString().contains("ortools"))
+                    .sorted(Comparator.comparing((Path f) -> f.getFileName().toString().contains("jni"))
+                            .thenComparing(Path::toString))
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not list OR-Tools native libraries in " + dir, e);
+        }
+        if (libraries.isEmpty()) {
+            throw new IllegalStateException("No OR-Tools native libraries found in " + dir);
+        }
+        for (Path library : libraries) {
+            try {
+                System.load(library.toAbsolutePath().toString());
+            } catch (LinkageError e) {
+                throw new IllegalStateException("Could not load OR-Tools native library " + library, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.acme.opt.solvers;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.SolverStrategy;
+import org.acme.opt.models.enums.AllocationEngine;
+import org.acme.opt.offheap.OffHeapAllocation;
+import org.acme.opt.offheap.OffHeapProblem;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Runs an engine on an {@link OffHeapProblem} for the offline entry points, writing into the given allocation. The
+ * greedy works on the off-heap problem directly; the other engines need it materialized on the heap.
+ */
+public final class OffHeapEngines {
+
+    private OffHeapEngines() {
+    }
+
+    public static OffHeapAllocation solve(AllocationEngine engine, SolverStrategy strategy, OffHeapProblem problem,
+                                          OffHeapAllocation allocation) {
+        return switch (engine) {
+            case GREEDY -> new OffHeapGreedySolver(problem, strategy).solve(allocation);
+            case LINEAR_PROGRAMMING -> onHeap(problem, allocation, MaximizeResourceUsage::new);
+            // Off-heap problems do not record min_completion, so selection is all-or-nothing
+            case PROJECT_SELECTION -> onHeap(problem, allocation,
+                    (resources, projects) -> new ProjectSelectionSolver(resources, projects, 0, 2000));
+            case FAIR_SHARE -> onHeap(problem, allocation, FairShareSolver::new);
+            // Nor substitution groups, so every requirement is served by its own resource
+            case MIN_COST_FLOW -> onHeap(problem, allocation,
+                    (resources, projects) -> new MinCostFlowSolver(resources, projects, Map.of()));
+            case LEXICOGRAPHIC -> onHeap(problem, allocation, LexicographicSolver::new);
+        };
+    }
+
+    private static OffHeapAllocation onHeap(OffHeapProblem problem, OffHeapAllocation allocation,
+                                            BiFunction<List<SolverResource>, List<SolverProject>, BaseSolver> engine) {
+        Map<SolverProject, List<SolverResource>> result =
+                engine.apply(problem.toSolverResources(), problem.toSolverProjects()).solve();
+        return OffHeapAllocation.fromResult(problem, result, allocation);
+    }
+}
@@ -0,0 +1,110 @@
+package org.acme.opt.solvers;
+
+import lombok.AllArgsConstructor;
+import org.acme.opt.models.SolverStrategy;
+import org.acme.opt.models.enums.GreedyOrder;
+import org.acme.opt.offheap.OffHeapAllocation;
+import org.acme.opt.offheap.OffHeapProblem;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Same greedy as {@link GreedyAssignmentSolver}, but working directly on an {@link OffHeapProblem} and writing
+ * into an {@link OffHeapAllocation}. The project order and the remaining capacities are kept in direct memory
+ * too, so heap usage does not grow with the instance.
+ */
+@AllArgsConstructor
+public class OffHeapGreedySolver {
+
+    private final OffHeapProblem problem;
+    private final SolverStrategy strategy;
+
+    public OffHeapAllocation solve() {
+        return solve(OffHeapAllocation.allocate(problem));
+    }
+
+    public OffHeapAllocation solve(OffHeapAllocation allocation) {
+        LongBuffer order = sortedOrder();
+
+        ByteBuffer remaining = ByteBuffer.allocateDirect(problem.numResources() * Integer.BYTES)
+                .order(ByteOrder.nativeOrder());
+        for (int r = 0; r < problem.numResources(); r++) {
+            remaining.putInt(r * Integer.BYTES, problem.capacity(r));
+        }
+
+        // Try to allocate resources to each project in order
+        for (int i = 0; i < problem.numProjects(); i++) {
+            int p = (int) order.get(i);
+            long required = 0;
+            long assigned = 0;
+            for (int k = problem.rowStart(p), end = problem.rowEnd(p); k < end; k++) {
+                int r = problem.column(k);
+                int requirement = problem.amount(k);
+                int available = remaining.getInt(r * Integer.BYTES);
+                int amount = requirement > 0 ? Math.min(requirement, available) : 0;
+                allocation.setAllocated(k, amount);
+                remaining.putInt(r * Integer.BYTES, available - amount);
+                required += requirement;
+                assigned += amount;
+            }
+            allocation.setCompletion(p, BaseSolver.completion(assigned, required));
+        }
+
+        return allocation;
+    }
+
+    // Packs (key, index) into longs so that a plain ascending sort is stable with respect to the input order.
+    private LongBuffer sortedOrder() {
+        int n = problem.numProjects();
+        LongBuffer order = ByteBuffer.allocateDirect(n * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+        boolean descending = strategy.order() == GreedyOrder.LARGEST_FIRST;
+        for (int p = 0; p < n; p++) {
+            long key = switch (strategy.strategy()) {
+                case PROJECT_SIZE -> problem.projectSize(p);
+                case ASSOCIATION_ACTIVITY -> problem.priority(p);
+                case CREATION_DATE, UNKNOWN -> 0;
+            };
+            key = Math.max(Integer.MIN_VALUE + 1, Math.min(Integer.MAX_VALUE, key));
+            if (descending) {
+                key = -key;
+            }
+            order.put(p, (key << 32) | p);
+        }
+        heapSort(order, n);
+        for (int i = 0; i < n; i++) {
+            order.put(i, order.get(i) & 0xFFFFFFFFL);
+        }
+        return order;
+    }
+
+    // In-place heap sort: no auxiliary arrays, so the order costs nothing on the heap.
+    private static void heapSort(LongBuffer values, int n) {
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(values, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            long top = values.get(0);
+            values.put(0, values.get(end));
+            values.put(end, top);
+            siftDown(values, 0, end);
+        }
+    }
+
+    private static void siftDown(LongBuffer values, int root, int n) {
+        long value = values.get(root);
+        int child;
+        while ((child = 2 * root + 1) < n) {
+            if (child + 1 < n && values.get(child + 1) > values.get(child)) {
+                child++;
+            }
+            if (values.get(child) <= value) {
+                break;
+            }
+            values.put(root, values.get(child));
+            root = child;
+        }
+        values.put(root, value);
+    }
+}
@@ -0,0 +1,162 @@
+package org.acme.opt.solvers;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.SolverStrategy;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * The {@link GreedyAssignmentSolver} run on all cores, with exactly the same result.
+ * <p>
+ * Workers take blocks of projects in greedy order and claim each requirement in full from its resource with an atomic
+ * add, without waiting for the projects before them. A resource whose claims stay below its capacity grants every
+ * claim in full, whatever order they arrived in, so those claims are final. Only the resources the claims ran out
+ * are order dependent: their requirements are replayed in greedy order, one resource per task, with the sequential
+ * rules (including the empty entry of the first project that finds a resource exhausted).
+ */
+public class ParallelGreedySolver implements BaseSolver {
+    private static final int BLOCK = 4096;
+
+    private final List<SolverResource> resources;
+    private final List<SolverProject> projects;
+    private final SolverStrategy strategy;
+
+    public ParallelGreedySolver(List<SolverResource> resources, List<SolverProject> projects, SolverStrategy strategy) {
+        this.resources = resources;
+        this.projects = projects;
+        this.strategy = strategy;
+    }
+
+    // Same order as the sequential greedy: the parallel sort of objects is stable as well
+    public static SolverProject[] order(List<SolverProject> projects, SolverStrategy strategy) {
+        SolverProject[] ordered = projects.toArray(SolverProject[]::new);
+        Arrays.parallelSort(ordered, GreedyAssignmentSolver.projectOrder(strategy));
+        return ordered;
+    }
+
+    @Override
+    public Map<SolverProject, List<SolverResource>> solve() {
+        SolverProject[] ordered = order(projects, strategy);
+        int n = ordered.length;
+
+        Map<String, Integer> resourceIndex = new HashMap<>();
+        List<String> resourceIds = new ArrayList<>();
+        List<Integer> capacities = new ArrayList<>();
+        for (SolverResource resource : resources) {
+            Integer r = resourceIndex.putIfAbsent(resource.getId(), resourceIds.size());
+            if (r == null) {
+                resourceIds.add(resource.getId());
+                capacities.add(resource.getAvailableCapacity());
+            } else {
+                capacities.set(r, capacities.get(r) + resource.getAvailableCapacity());
+            }
+        }
+        int[] capacity = capacities.stream().mapToInt(Integer::intValue).toArray();
+
+        // Requirements on known resources, row by row in greedy order; unknown resources are never assigned
+        int[] rowStart = new int[n + 1];
+        IntStream.range(0, n).parallel().forEach(i -> rowStart[i + 1] = (int) ordered[i].getRequirements().keySet()
+                .stream().filter(resourceIndex::containsKey).count());
+        Arrays.parallelPrefix(rowStart, Integer::sum);
+        int entries = rowStart[n];
+        int[] entryResource = new int[entries];
+        int[] entryRequirement = new int[entries];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            int k = rowStart[i];
+            for (Map.Entry<String, Integer> requirement : ordered[i].getRequirements().entrySet()) {
+                Integer r = resourceIndex.get(requirement.getKey());
+                if (r != null) {
+                    entryResource[k] = r;
+                    entryRequirement[k++] = requirement.getValue();
+                }
+            }
+        });
+
+        // Optimistic claims. A resource is contended once its claims reach its capacity: from there on a claim may
+        // not be granted in full, or the resource may run out, so further claims on it are not counted.
+        AtomicLongArray claimed = new AtomicLongArray(capacity.length);
+        AtomicIntegerArray contended = new AtomicIntegerArray(capacity.length);
+        for (int r = 0; r < capacity.length; r++) {
+            if (capacity[r] <= 0) {
+                contended.set(r, 1);
+            }
+        }
+        IntStream.range(0, (entries + BLOCK - 1) / BLOCK).parallel().forEach(block -> {
+            for (int k = block * BLOCK, end = Math.min(entries, k + BLOCK); k < end; k++) {
+                int r = entryResource[k];
+                int requirement = entryRequirement[k];
+                if (requirement > 0 && contended.get(r) == 0
+                        && claimed.addAndGet(r, requirement) >= capacity[r]) {
+                    contended.set(r, 1);
+                }
+            }
+        });
+
+        // Uncontended claims stand; a non-positive requirement takes nothing from a resource that never runs out
+        int[] amount = new int[entries];
+        boolean[] assigned = new boolean[entries];
+        long[] replay = IntStream.range(0, entries).parallel()
+                .filter(k -> {
+                    if (contended.get(entryResource[k]) == 1) {
+                        return true;
+                    }
+                    assigned[k] = entryRequirement[k] > 0;
+                    amount[k] = entryRequirement[k];
+                    return false;
+                })
+                .mapToLong(k -> (long) entryResource[k] << 32 | k)
+                .toArray();
+        // Grouped by resource, each group in greedy order
+        Arrays.parallelSort(replay);
+        int[] groupStart = IntStream.range(0, replay.length).parallel()
+                .filter(j -> j == 0 || replay[j] >>> 32 != replay[j - 1] >>> 32)
+                .toArray();
+        IntStream.range(0, groupStart.length).parallel().forEach(g -> {
+            int end = g + 1 < groupStart.length ? groupStart[g + 1] : replay.length;
+            int available = capacity[(int) (replay[groupStart[g]] >>> 32)];
+            for (int j = groupStart[g]; j < end; j++) {
+                int k = (int) replay[j];
+                int requirement = entryRequirement[k];
+                if (requirement > 0 && available >= requirement) {
+                    assigned[k] = true;
+                    amount[k] = requirement;
+                    available -= requirement;
+                } else if (available <= requirement) {
+                    // The sequential greedy records what is left, possibly nothing, and drops the resource
+                    assigned[k] = true;
+                    amount[k] = available;
+                    break;
+                }
+            }
+        });
+
+        // Later projects never take from earlier ones, so every completion is known already
+        @SuppressWarnings("unchecked")
+        List<SolverResource>[] rows = new List[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            List<SolverResource> row = new ArrayList<>();
+            for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                if (assigned[k]) {
+                    row.add(new SolverResource(resourceIds.get(entryResource[k]), "", amount[k], 0));
+                }
+            }
+            if (!row.isEmpty()) {
+                ordered[i].setCompletionRate(String.valueOf(
+                        (double) Math.round(BaseSolver.weightedPercentage(ordered[i], row))));
+                rows[i] = row;
+            }
+        });
+
+        Map<SolverProject, List<SolverResource>> allocation = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (rows[i] != null) {
+                allocation.put(ordered[i], rows[i]);
+            }
+        }
+        return allocation;
+    }
+}
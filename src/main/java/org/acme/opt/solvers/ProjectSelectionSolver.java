@@ -0,0 +1,474 @@
+package org.acme.opt.solvers;
+
+import com.google.ortools.sat.BoolVar;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpSolver;
+import com.google.ortools.sat.CpSolverStatus;
+import com.google.ortools.sat.LinearExpr;
+import com.google.ortools.sat.LinearExprBuilder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.acme.opt.models.IndexedProblem;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.profiling.SolverPhaseEvent;
+import org.acme.opt.profiling.SolverPhaseEvent.Phase;
+import org.jboss.logging.Logger;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * All-or-nothing project selection: a project is either funded with at least {@code minCompletion} of every
+ * requirement (rounded up) or gets nothing. The objective is the LP's weighted usage of the funded projects,
+ * (1 + priority) * project size, which makes this a multi-dimensional 0/1 knapsack.
+ * <p>
+ * It is solved by a depth-first branch-and-bound over projects sorted by value per unit of surrogate weight
+ * (demand / capacity summed over resources). Each node is bounded by the fractional knapsack over the surrogate
+ * constraint; a project is never included once a project that dominates it (no larger demand anywhere, no smaller
+ * value) has been left out. The first levels of the tree are split into subtrees explored in parallel, sharing the
+ * incumbent. The time limit covers the whole solve: the tree gets half of it, and if it is not closed by then CP-SAT
+ * gets whatever is left, seeded with the incumbent.
+ * Capacity left over after the selection tops up the funded projects, highest value first.
+ */
+@RequiredArgsConstructor
+public class ProjectSelectionSolver implements BaseSolver {
+    private static final Logger LOG = Logger.getLogger(ProjectSelectionSolver.class);
+    private static final int MAX_DOMINATORS = 8;
+    private static final int SUBGRADIENT_ITERATIONS = 200;
+
+    public record Report(int fundedProjects, long objective, long upperBound, long nodes, boolean provenOptimal,
+                         boolean usedCpSat, long elapsedMillis) {
+    }
+
+    private final List<SolverResource> resources;
+    private final List<SolverProject> projects;
+    // Fraction of every requirement a funded project must receive; 0 means the whole requirement
+    private final double minCompletion;
+    private final long timeLimitMillis;
+
+    @Getter
+    private Report report;
+
+    // Per position in branching order: project index, value, surrogate weight and CSR demand entries
+    private IndexedProblem problem;
+    private int[] items;
+    private long[] value;
+    private double[] surrogate;
+    private int[] itemStart;
+    private int[] itemResource;
+    private int[] itemDemand;
+    private int[][] dominators;
+    private double[] surrogateFactor;
+
+    private final AtomicLong bestValue = new AtomicLong(-1);
+    private boolean[] bestTaken;
+    private final AtomicBoolean timedOut = new AtomicBoolean();
+    private final LongAdder nodes = new LongAdder();
+    // End of the branch-and-bound, and of the whole solve
+    private long deadline;
+    private long totalDeadline;
+
+    @Override
+    public Map<SolverProject, List<SolverResource>> solve() {
+        long start = System.currentTimeMillis();
+        totalDeadline = start + timeLimitMillis;
+        deadline = start + timeLimitMillis / 2;
+        problem = new IndexedProblem(resources, projects);
+        double threshold = minCompletion > 0 ? minCompletion : 1.0;
+        buildItems(threshold);
+        buildDominators();
+
+        int n = items.length;
+        int[] capacity = problem.getCapacity();
+        offer(greedyIncumbent(IntStream.range(0, n).toArray()));
+        offer(greedyIncumbent(IntStream.range(0, n).boxed()
+                .sorted(Comparator.comparingLong((Integer i) -> -value[i]))
+                .mapToInt(Integer::intValue).toArray()));
+
+        long upperBound = (long) Math.floor(bound(0, 0, capacity.clone(), totalSurrogate(capacity)) + 1e-6);
+        if (bestValue.get() < upperBound) {
+            splitSubtrees().parallelStream().forEach(this::explore);
+        }
+        boolean usedCpSat = timedOut.get();
+        boolean provenOptimal = !usedCpSat || solveWithCpSat();
+
+        boolean[] taken = bestTaken;
+        int[] allocated = allocate(taken, threshold);
+        int funded = (int) IntStream.range(0, n).filter(i -> taken[i]).count();
+        report = new Report(funded, bestValue.get(), upperBound, nodes.sum(), provenOptimal, usedCpSat,
+                System.currentTimeMillis() - start);
+        LOG.debugf("Project selection: %d/%d projects funded, objective %d (bound %d), %d nodes, optimal=%s",
+                funded, projects.size(), report.objective(), upperBound, report.nodes(), report.provenOptimal());
+
+        return problem.toResult(allocated);
+    }
+
+    private void buildItems(double threshold) {
+        int[] capacity = problem.getCapacity();
+
+        // Projects that cannot be funded on their own never enter the tree
+        List<Integer> candidates = new ArrayList<>();
+        for (int p = 0; p < problem.numProjects(); p++) {
+            boolean fits = problem.getProjectSize()[p] > 0;
+            for (int k = problem.getRowStart()[p]; k < problem.getRowStart()[p + 1]; k++) {
+                fits &= demand(problem.getEntryRequirement()[k], threshold) <= capacity[problem.getEntryResource()[k]];
+            }
+            if (fits) {
+                candidates.add(p);
+            }
+        }
+
+        surrogateFactor = multipliers(candidates, threshold);
+        Map<Integer, Double> weights = new HashMap<>();
+        for (int p : candidates) {
+            double weight = 0;
+            for (int k = problem.getRowStart()[p]; k < problem.getRowStart()[p + 1]; k++) {
+                weight += demand(problem.getEntryRequirement()[k], threshold) * surrogateFactor[problem.getEntryResource()[k]];
+            }
+            weights.put(p, weight);
+        }
+        candidates.sort(Comparator.comparingDouble((Integer p) -> -projectValue(p) / Math.max(weights.get(p), 1e-12)));
+
+        int n = candidates.size();
+        items = candidates.stream().mapToInt(Integer::intValue).toArray();
+        value = new long[n];
+        surrogate = new double[n];
+        itemStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int p = items[i];
+            value[i] = projectValue(p);
+            surrogate[i] = weights.get(p);
+            itemStart[i + 1] = itemStart[i] + problem.getRowStart()[p + 1] - problem.getRowStart()[p];
+        }
+        itemResource = new int[itemStart[n]];
+        itemDemand = new int[itemStart[n]];
+        for (int i = 0; i < n; i++) {
+            int k = problem.getRowStart()[items[i]];
+            for (int e = itemStart[i]; e < itemStart[i + 1]; e++, k++) {
+                itemResource[e] = problem.getEntryResource()[k];
+                itemDemand[e] = demand(problem.getEntryRequirement()[k], threshold);
+            }
+        }
+    }
+
+    /**
+     * Subgradient descent on the Lagrangian dual of the capacity constraints. The multipliers with the lowest dual
+     * bound weight the surrogate constraint, which makes both the bound and the branching order far tighter than
+     * weighting every resource by its capacity alone.
+     */
+    private double[] multipliers(List<Integer> candidates, double threshold) {
+        int[] capacity = problem.getCapacity();
+        long totalValue = 0;
+        long totalDemand = 0;
+        for (int p : candidates) {
+            totalValue += projectValue(p);
+            for (int k = problem.getRowStart()[p]; k < problem.getRowStart()[p + 1]; k++) {
+                totalDemand += demand(problem.getEntryRequirement()[k], threshold);
+            }
+        }
+        double initial = totalDemand > 0 ? (double) totalValue / totalDemand : 1.0;
+        double[] lambda = new double[capacity.length];
+        Arrays.fill(lambda, initial);
+        double[] best = lambda.clone();
+        double bestBound = Double.POSITIVE_INFINITY;
+        double step = initial / 2;
+
+        for (int iteration = 0; iteration < SUBGRADIENT_ITERATIONS; iteration++) {
+            double bound = 0;
+            double[] gradient = new double[capacity.length];
+            for (int r = 0; r < capacity.length; r++) {
+                bound += lambda[r] * capacity[r];
+                gradient[r] = capacity[r];
+            }
+            for (int p : candidates) {
+                double reduced = projectValue(p);
+                for (int k = problem.getRowStart()[p]; k < problem.getRowStart()[p + 1]; k++) {
+                    reduced -= lambda[problem.getEntryResource()[k]] * demand(problem.getEntryRequirement()[k], threshold);
+                }
+                if (reduced > 0) {
+                    bound += reduced;
+                    for (int k = problem.getRowStart()[p]; k < problem.getRowStart()[p + 1]; k++) {
+                        gradient[problem.getEntryResource()[k]] -= demand(problem.getEntryRequirement()[k], threshold);
+                    }
+                }
+            }
+            if (bound < bestBound) {
+                bestBound = bound;
+                best = lambda.clone();
+            }
+
+            // Multipliers already at zero with spare capacity cannot move, so they do not count in the norm
+            double norm = 0;
+            for (int r = 0; r < capacity.length; r++) {
+                if (lambda[r] > 0 || gradient[r] < 0) {
+                    norm += gradient[r] * gradient[r];
+                }
+            }
+            if (norm == 0) {
+                break;
+            }
+            norm = Math.sqrt(norm);
+            for (int r = 0; r < capacity.length; r++) {
+                lambda[r] = Math.max(0, lambda[r] - step * gradient[r] / norm);
+            }
+            step *= 0.97;
+        }
+        return best;
+    }
+
+    private static int demand(int requirement, double threshold) {
+        return (int) Math.ceil(requirement * threshold - 1e-9);
+    }
+
+    private long projectValue(int p) {
+        return (1L + Math.max(0, problem.getPriority()[p])) * problem.getProjectSize()[p];
+    }
+
+    // j dominates k (j earlier in branching order) when j needs no more of anything and is worth at least as much.
+    private void buildDominators() {
+        int n = items.length;
+        int[] position = new int[problem.numProjects()];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < n; i++) {
+            position[items[i]] = i;
+        }
+        dominators = new int[n][];
+        int[] columnStart = problem.getColumnStart();
+        int[] columnEntries = problem.getColumnEntries();
+        for (int k = 0; k < n; k++) {
+            Set<Integer> found = new TreeSet<>();
+            for (int e = itemStart[k]; e < itemStart[k + 1] && found.size() < MAX_DOMINATORS; e++) {
+                int r = itemResource[e];
+                for (int c = columnStart[r]; c < columnStart[r + 1] && found.size() < MAX_DOMINATORS; c++) {
+                    int j = position[problem.getEntryProject()[columnEntries[c]]];
+                    if (j >= 0 && j < k && value[j] >= value[k] && !found.contains(j) && demandsCovered(j, k)) {
+                        found.add(j);
+                    }
+                }
+            }
+            dominators[k] = found.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    // Every demand of item j is at most the demand of item k on the same resource.
+    private boolean demandsCovered(int j, int k) {
+        for (int e = itemStart[j]; e < itemStart[j + 1]; e++) {
+            int other = Arrays.binarySearch(itemResource, itemStart[k], itemStart[k + 1], itemResource[e]);
+            if (other < 0 || itemDemand[other] < itemDemand[e]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean[] greedyIncumbent(int[] order) {
+        int[] remaining = problem.getCapacity().clone();
+        boolean[] taken = new boolean[items.length];
+        for (int i : order) {
+            if (fits(i, remaining)) {
+                take(i, remaining, 1);
+                taken[i] = true;
+            }
+        }
+        return taken;
+    }
+
+    private synchronized void offer(boolean[] taken) {
+        long total = 0;
+        for (int i = 0; i < taken.length; i++) {
+            total += taken[i] ? value[i] : 0;
+        }
+        if (total > bestValue.get()) {
+            bestTaken = taken.clone();
+            bestValue.set(total);
+        }
+    }
+
+    private boolean fits(int i, int[] remaining) {
+        for (int e = itemStart[i]; e < itemStart[i + 1]; e++) {
+            if (itemDemand[e] > remaining[itemResource[e]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void take(int i, int[] remaining, int sign) {
+        for (int e = itemStart[i]; e < itemStart[i + 1]; e++) {
+            remaining[itemResource[e]] -= sign * itemDemand[e];
+        }
+    }
+
+    private double totalSurrogate(int[] remaining) {
+        double total = 0;
+        for (int r = 0; r < remaining.length; r++) {
+            total += remaining[r] * surrogateFactor[r];
+        }
+        return total;
+    }
+
+    // Fractional knapsack over the surrogate constraint, skipping items that no longer fit on their own.
+    private double bound(int from, long current, int[] remaining, double remainingSurrogate) {
+        double bound = current;
+        for (int i = from; i < items.length && remainingSurrogate > 0; i++) {
+            if (!fits(i, remaining)) {
+                continue;
+            }
+            if (surrogate[i] <= remainingSurrogate) {
+                remainingSurrogate -= surrogate[i];
+                bound += value[i];
+            } else {
+                return bound + value[i] * remainingSurrogate / surrogate[i];
+            }
+        }
+        return bound;
+    }
+
+    private boolean excluded(int i, int[] remaining, boolean[] taken) {
+        if (!fits(i, remaining)) {
+            return true;
+        }
+        for (int j : dominators[i]) {
+            if (!taken[j]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Subtree(int from, long value, int[] remaining, double remainingSurrogate, boolean[] taken) {
+    }
+
+    // Decides the first levels breadth-first so that there are a few subtrees per worker thread.
+    private List<Subtree> splitSubtrees() {
+        int target = 4 * Runtime.getRuntime().availableProcessors();
+        int[] capacity = problem.getCapacity();
+        List<Subtree> frontier = List.of(new Subtree(0, 0, capacity.clone(), totalSurrogate(capacity), new boolean[items.length]));
+        int depth = 0;
+        while (frontier.size() < target && depth < items.length) {
+            List<Subtree> next = new ArrayList<>();
+            for (Subtree node : frontier) {
+                if (!excluded(depth, node.remaining(), node.taken())) {
+                    int[] remaining = node.remaining().clone();
+                    boolean[] taken = node.taken().clone();
+                    take(depth, remaining, 1);
+                    taken[depth] = true;
+                    next.add(new Subtree(depth + 1, node.value() + value[depth], remaining,
+                            node.remainingSurrogate() - surrogate[depth], taken));
+                }
+                next.add(new Subtree(depth + 1, node.value(), node.remaining(), node.remainingSurrogate(), node.taken()));
+            }
+            frontier = next;
+            depth++;
+        }
+        return frontier;
+    }
+
+    private void explore(Subtree subtree) {
+        long[] visited = new long[1];
+        search(subtree.from(), subtree.value(), subtree.remaining().clone(), subtree.remainingSurrogate(),
+                subtree.taken().clone(), visited);
+        nodes.add(visited[0]);
+    }
+
+    // Include branches recurse, exclude branches loop, so the depth is bounded by the number of funded projects.
+    private void search(int i, long current, int[] remaining, double remainingSurrogate, boolean[] taken, long[] visited) {
+        while (true) {
+            if ((++visited[0] & 1023) == 0 && System.currentTimeMillis() > deadline) {
+                timedOut.set(true);
+            }
+            if (timedOut.get()) {
+                return;
+            }
+            while (i < items.length && excluded(i, remaining, taken)) {
+                i++;
+            }
+            if (current > bestValue.get()) {
+                offer(taken);
+            }
+            if (i == items.length || Math.floor(bound(i, current, remaining, remainingSurrogate) + 1e-6) <= bestValue.get()) {
+                return;
+            }
+
+            take(i, remaining, 1);
+            taken[i] = true;
+            search(i + 1, current + value[i], remaining, remainingSurrogate - surrogate[i], taken, visited);
+            take(i, remaining, -1);
+            taken[i] = false;
+            i++;
+        }
+    }
+
+    private boolean solveWithCpSat() {
+        NativeLibraries.ensureLoaded();
+        SolverPhaseEvent build = SolverPhaseEvent.start(Phase.MODEL_BUILD, getClass().getSimpleName());
+        CpModel model = new CpModel();
+        int n = items.length;
+        BoolVar[] fund = new BoolVar[n];
+        for (int i = 0; i < n; i++) {
+            fund[i] = model.newBoolVar("fund_" + items[i]);
+            model.addHint(fund[i], bestTaken[i] ? 1 : 0);
+        }
+
+        Map<Integer, LinearExprBuilder> usage = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            for (int e = itemStart[i]; e < itemStart[i + 1]; e++) {
+                usage.computeIfAbsent(itemResource[e], r -> LinearExpr.newBuilder()).addTerm(fund[i], itemDemand[e]);
+            }
+        }
+        usage.forEach((r, expression) -> model.addLessOrEqual(expression, problem.getCapacity()[r]));
+        model.maximize(LinearExpr.weightedSum(fund, value));
+        build.end(resources, projects, "");
+        long remaining = totalDeadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return false;
+        }
+
+        CpSolver solver = new CpSolver();
+        solver.getParameters().setMaxTimeInSeconds(remaining / 1000.0);
+        solver.getParameters().setNumWorkers(Runtime.getRuntime().availableProcessors());
+        SolverPhaseEvent nativeSolve = SolverPhaseEvent.start(Phase.NATIVE_SOLVE, getClass().getSimpleName());
+        CpSolverStatus status = solver.solve(model);
+        nativeSolve.end(resources, projects, status.name());
+        if (status != CpSolverStatus.OPTIMAL && status != CpSolverStatus.FEASIBLE) {
+            return false;
+        }
+
+        boolean[] taken = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            taken[i] = solver.booleanValue(fund[i]);
+        }
+        offer(taken);
+        return status == CpSolverStatus.OPTIMAL;
+    }
+
+    // Funded projects get their demand, then leftover capacity up to the full requirement, highest value first.
+    private int[] allocate(boolean[] taken, double threshold) {
+        int[] allocated = new int[problem.nonZeros()];
+        int[] remaining = problem.getCapacity().clone();
+        List<Integer> funded = new ArrayList<>();
+        for (int i = 0; i < items.length; i++) {
+            if (taken[i]) {
+                funded.add(items[i]);
+                for (int k = problem.getRowStart()[items[i]]; k < problem.getRowStart()[items[i] + 1]; k++) {
+                    allocated[k] = demand(problem.getEntryRequirement()[k], threshold);
+                    remaining[problem.getEntryResource()[k]] -= allocated[k];
+                }
+            }
+        }
+        funded.sort(Comparator.comparingLong((Integer p) -> -projectValue(p)));
+        for (int p : funded) {
+            for (int k = problem.getRowStart()[p]; k < problem.getRowStart()[p + 1]; k++) {
+                int r = problem.getEntryResource()[k];
+                int extra = Math.min(remaining[r], problem.getEntryRequirement()[k] - allocated[k]);
+                allocated[k] += extra;
+                remaining[r] -= extra;
+            }
+        }
+        return allocated;
+    }
+}
@@ -0,0 +1,212 @@
+package org.acme.opt.solvers;
+
+import org.acme.opt.models.IndexedProblem;
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.SolverStrategy;
+import org.jboss.logging.Logger;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * The greedy under uncertain capacities. Every scenario scales each capacity by a random factor; the scenarios are
+ * solved with the greedy, in parallel batches that share the problem's indexed structure and reuse their arrays.
+ * <p>
+ * Per project the completions across scenarios give quantiles and the probability of being completed. The allocation
+ * returned is the greedy on every capacity scaled down by one factor. The greedy uses {@code min(capacity, demand)} of
+ * each resource, so a scenario only limits that factor through the resources it leaves short of their demand: the
+ * factor is the lowest of theirs that a {@code reliability} share of the scenarios stays above. The allocation fits in
+ * all of those; its measured reliability is the share of scenarios in which every resource covers it.
+ * <p>
+ * Scenario {@code s} draws from its own seed, so the result does not depend on how scenarios are spread over threads.
+ */
+public class RobustAllocationSolver implements BaseSolver {
+    private static final Logger LOG = Logger.getLogger(RobustAllocationSolver.class);
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final int BATCH = 16;
+    // Scenario limits are counted in bins of 1/2048 over [0, 2), larger factors in one more bin
+    private static final int FACTOR_BINS = 4096;
+    private static final double BIN_WIDTH = 2.0 / FACTOR_BINS;
+    private static final int COMPLETION_BINS = 101;
+
+    public enum Noise {
+        // 1 + variation * N(0, 1)
+        NORMAL,
+        // 1 + variation * U(-1, 1)
+        UNIFORM,
+        // 1 - variation * Exp(1): capacity is only ever lost, as in outages
+        EXPONENTIAL;
+
+        double factor(SplittableRandom random, double variation) {
+            double factor = switch (this) {
+                case NORMAL -> 1 + variation * random.nextGaussian();
+                case UNIFORM -> 1 + variation * (2 * random.nextDouble() - 1);
+                case EXPONENTIAL -> 1 - variation * random.nextExponential();
+            };
+            return Math.max(0, factor);
+        }
+    }
+
+    /**
+     * @param variation   relative spread of the capacity factors
+     * @param reliability share (0-1) of the scenarios the returned allocation must hold in
+     */
+    public record Uncertainty(int scenarios, Noise noise, double variation, double reliability, long seed) {
+    }
+
+    // Completion percentages across scenarios; fullProbability is the share of scenarios completing the project
+    public record Quantiles(double p10, double p50, double p90, double mean, double fullProbability) {
+    }
+
+    public record Report(int scenarios, double capacityFactor, double planReliability,
+                         Map<String, Quantiles> completions) {
+    }
+
+    private final List<SolverResource> resources;
+    private final List<SolverProject> projects;
+    private final SolverStrategy strategy;
+    private final Uncertainty uncertainty;
+    private Report report;
+
+    public RobustAllocationSolver(List<SolverResource> resources, List<SolverProject> projects, SolverStrategy strategy,
+                                  Uncertainty uncertainty) {
+        this.resources = resources;
+        this.projects = projects;
+        this.strategy = strategy;
+        this.uncertainty = uncertainty;
+    }
+
+    public Report getReport() {
+        return report;
+    }
+
+    @Override
+    public Map<SolverProject, List<SolverResource>> solve() {
+        IndexedProblem problem = new IndexedProblem(resources, projects);
+        int[] order = problem.order(GreedyAssignmentSolver.projectOrder(strategy));
+        int[] capacity = problem.getCapacity();
+        int numProjects = problem.numProjects();
+        int scenarios = uncertainty.scenarios();
+        int batches = (scenarios + BATCH - 1) / BATCH;
+
+        long[] demand = new long[capacity.length];
+        int[] entryResource = problem.getEntryResource();
+        int[] entryRequirement = problem.getEntryRequirement();
+        for (int k = 0; k < entryResource.length; k++) {
+            demand[entryResource[k]] += Math.max(0, entryRequirement[k]);
+        }
+
+        AtomicIntegerArray completionCounts = new AtomicIntegerArray(numProjects * COMPLETION_BINS);
+        AtomicLongArray factorCounts = new AtomicLongArray(FACTOR_BINS + 1);
+        IntStream.range(0, batches).parallel().forEach(batch -> {
+            int[] capacities = new int[capacity.length];
+            int[] allocated = new int[problem.nonZeros()];
+            int[] remaining = new int[capacity.length];
+            long[] factors = new long[FACTOR_BINS + 1];
+            for (int s = batch * BATCH, end = Math.min(scenarios, s + BATCH); s < end; s++) {
+                double lowest = sample(s, capacity, demand, capacities);
+                factors[Math.min(FACTOR_BINS, (int) (lowest / BIN_WIDTH))]++;
+                problem.greedy(order, capacities, allocated, remaining);
+                for (int p = 0; p < numProjects; p++) {
+                    int completion = (int) Math.min(100, Math.max(0, problem.completion(p, allocated)));
+                    completionCounts.incrementAndGet(p * COMPLETION_BINS + completion);
+                }
+            }
+            for (int bin = 0; bin < factors.length; bin++) {
+                if (factors[bin] > 0) {
+                    factorCounts.addAndGet(bin, factors[bin]);
+                }
+            }
+        });
+
+        // Lower edge of the bin holding the (1 - reliability) quantile of the scenarios' limits, never above the
+        // nominal capacities
+        long rank = (long) Math.floor((1 - uncertainty.reliability()) * scenarios) + 1;
+        int bin = 0;
+        long seen = factorCounts.get(0);
+        while (seen < rank && bin < FACTOR_BINS) {
+            seen += factorCounts.get(++bin);
+        }
+        double factor = Math.min(1, bin * BIN_WIDTH);
+        int[] reliable = new int[capacity.length];
+        for (int r = 0; r < capacity.length; r++) {
+            reliable[r] = (int) Math.floor(capacity[r] * factor);
+        }
+        int[] plan = problem.greedy(order, reliable);
+
+        long[] used = new long[capacity.length];
+        for (int k = 0; k < plan.length; k++) {
+            used[entryResource[k]] += plan[k];
+        }
+        long held = IntStream.range(0, batches).parallel().mapToLong(batch -> {
+            int[] capacities = new int[capacity.length];
+            long count = 0;
+            for (int s = batch * BATCH, end = Math.min(scenarios, s + BATCH); s < end; s++) {
+                sample(s, capacity, demand, capacities);
+                if (covers(capacities, used)) {
+                    count++;
+                }
+            }
+            return count;
+        }).sum();
+
+        Map<String, Quantiles> completions = new LinkedHashMap<>();
+        for (int p = 0; p < numProjects; p++) {
+            completions.put(projects.get(p).getId(), quantiles(completionCounts, p, scenarios));
+        }
+        double planReliability = scenarios > 0 ? (double) held / scenarios : 1;
+        report = new Report(scenarios, factor, planReliability, completions);
+        LOG.debugf("Robust: %d scenarios, capacity factor %.4f, plan holds in %.1f%% of them",
+                scenarios, factor, planReliability * 100);
+        return problem.toResult(plan);
+    }
+
+    // Capacities of scenario s, and the lowest factor of a resource it leaves short of its demand; the same s always
+    // draws the same factors
+    private double sample(int s, int[] capacity, long[] demand, int[] capacities) {
+        SplittableRandom random = new SplittableRandom(uncertainty.seed() + 2L * s * GOLDEN_GAMMA).split();
+        double lowest = Double.MAX_VALUE;
+        for (int r = 0; r < capacity.length; r++) {
+            double factor = uncertainty.noise().factor(random, uncertainty.variation());
+            capacities[r] = (int) Math.min(Integer.MAX_VALUE, Math.floor(capacity[r] * factor));
+            if (capacities[r] < demand[r]) {
+                lowest = Math.min(lowest, factor);
+            }
+        }
+        return lowest;
+    }
+
+    private static boolean covers(int[] capacities, long[] used) {
+        for (int r = 0; r < capacities.length; r++) {
+            if (used[r] > capacities[r]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Nearest-rank quantiles from the completion histogram of project p
+    private static Quantiles quantiles(AtomicIntegerArray counts, int p, int scenarios) {
+        if (scenarios == 0) {
+            return new Quantiles(0, 0, 0, 0, 0);
+        }
+        double[] levels = {0.1, 0.5, 0.9};
+        double[] values = new double[levels.length];
+        long seen = 0;
+        double sum = 0;
+        int level = 0;
+        for (int c = 0; c < COMPLETION_BINS; c++) {
+            int count = counts.get(p * COMPLETION_BINS + c);
+            seen += count;
+            sum += (double) c * count;
+            while (level < levels.length && seen >= Math.ceil(levels[level] * scenarios)) {
+                values[level++] = c;
+            }
+        }
+        double full = (double) counts.get(p * COMPLETION_BINS + COMPLETION_BINS - 1) / scenarios;
+        return new Quantiles(values[0], values[1], values[2], sum / scenarios, full);
+    }
+}
@@ -0,0 +1,128 @@
+package org.acme.opt.stats;
+
+import org.acme.opt.offheap.OffHeapAllocation;
+import org.acme.opt.offheap.OffHeapProblem;
+
+import java.io.PrintStream;
+
+/**
+ * Counterpart of {@link ResourceAllocationStats} for the off-heap stores. Usage is aggregated in one pass over the
+ * allocation; only a per-resource array is kept on the heap.
+ */
+public class OffHeapAllocationStats {
+    private final OffHeapProblem problem;
+    private final OffHeapAllocation allocation;
+    private final long[] usedByResource;
+
+    public OffHeapAllocationStats(OffHeapProblem problem, OffHeapAllocation allocation) {
+        this.problem = problem;
+        this.allocation = allocation;
+        this.usedByResource = new long[problem.numResources()];
+        for (int k = 0; k < problem.nonZeros(); k++) {
+            usedByResource[problem.column(k)] += allocation.allocated(k);
+        }
+    }
+
+    public long totalCapacity() {
+        long total = 0;
+        for (int r = 0; r < problem.numResources(); r++) {
+            total += problem.capacity(r);
+        }
+        return total;
+    }
+
+    public long totalUsed() {
+        long total = 0;
+        for (long used : usedByResource) {
+            total += used;
+        }
+        return total;
+    }
+
+    public long used(int resource) {
+        return usedByResource[resource];
+    }
+
+    public double averageCompletion() {
+        double total = 0;
+        for (int p = 0; p < problem.numProjects(); p++) {
+            total += allocation.completion(p);
+        }
+        return problem.numProjects() > 0 ? total / problem.numProjects() : 0;
+    }
+
+    public int fullyCompletedProjects() {
+        int count = 0;
+        for (int p = 0; p < problem.numProjects(); p++) {
+            if (allocation.completion(p) >= 100) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Index of the resource with the highest (or lowest) used capacity, -1 when there are no resources.
+    public int mostUsedResource() {
+        return extremeResource(true);
+    }
+
+    public int leastUsedResource() {
+        return extremeResource(false);
+    }
+
+    private int extremeResource(boolean max) {
+        int best = -1;
+        for (int r = 0; r < usedByResource.length; r++) {
+            if (best < 0 || (max ? usedByResource[r] > usedByResource[best] : usedByResource[r] < usedByResource[best])) {
+                best = r;
+            }
+        }
+        return best;
+    }
+
+    public void printGlobalStats() {
+        printGlobalStats(System.out);
+    }
+
+    public void printGlobalStats(PrintStream out) {
+        long totalAvailableCapacity = totalCapacity();
+        long totalUsedCapacity = totalUsed();
+        double utilizationRate = totalAvailableCapacity > 0 ?
+                (double) totalUsedCapacity / totalAvailableCapacity * 100 : 0;
+
+        out.println("\nGlobal Stats:");
+        out.printf("Projects: %d, Resources: %d, Requirements: %d%n",
+                problem.numProjects(), problem.numResources(), problem.nonZeros());
+        out.printf("Total Resource Capacity Available: %d units%n", totalAvailableCapacity);
+        out.printf("Total Resource Capacity Used: %d units%n", totalUsedCapacity);
+        out.printf("Resource Utilization Rate: %.2f%%%n", utilizationRate);
+        out.printf("Unused Resource Capacity: %d units%n", totalAvailableCapacity - totalUsedCapacity);
+        out.printf("Average Project Completion: %.2f%%%n", averageCompletion());
+        out.printf("Fully Completed Projects: %d%n", fullyCompletedProjects());
+
+        int most = mostUsedResource();
+        int least = leastUsedResource();
+        if (most >= 0) {
+            out.printf("Most Used Resource: %s (%d units)%n", problem.resourceId(most), usedByResource[most]);
+            out.printf("Least Used Resource: %s (%d units)%n", problem.resourceId(least), usedByResource[least]);
+        }
+    }
+
+    public void printPerResourceStats() {
+        System.out.println("\nPer Resource Stats:");
+        for (int r = 0; r < problem.numResources(); r++) {
+            System.out.printf("Resource %s: Total Capacity = %d, Used = %d, Available = %d, Cost = %d%n",
+                    problem.resourceId(r),
+                    problem.capacity(r),
+                    usedByResource[r],
+                    problem.capacity(r) - usedByResource[r],
+                    problem.cost(r));
+        }
+    }
+
+    public void printAllStats() {
+        System.out.println("\n=== OFF-HEAP ALLOCATION STATS SUMMARY ===\n");
+        printGlobalStats();
+        printPerResourceStats();
+    }
+}
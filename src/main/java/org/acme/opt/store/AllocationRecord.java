@@ -0,0 +1,115 @@
+package org.acme.opt.store;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import resourceallocation.AllocationResponse;
+import resourceallocation.StoredProjectAllocation;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * One stored allocation inside a segment (little-endian):
+ * <pre>
+ *  0 int  magic ("PFAR")        4 int  record length, header included
+ *  8 long created at (epoch ms)
+ * 16 int  project count         20 int  id length           24 int  summary length
+ * 28 int  CRC32 of bytes 32..length
+ * 32 id (UTF-8), summary (AllocationResponse without the per-project maps),
+ *    project count + 1 int offsets from the record start, then one StoredProjectAllocation per project
+ * </pre>
+ * The offset table lets a page of projects be decoded without touching the rest of the record.
+ */
+public class AllocationRecord {
+    static final int MAGIC = 0x52414650; // "PFAR" read little-endian
+    static final int HEADER_BYTES = 32;
+
+    private final ByteBuffer buffer;
+
+    // View over a record that starts at position 0 of the buffer
+    AllocationRecord(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static ByteBuffer encode(String id, long createdAt, AllocationResponse summary, List<StoredProjectAllocation> projects) {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        byte[] summaryBytes = summary.toByteArray();
+        List<byte[]> entries = new ArrayList<>(projects.size());
+        long length = HEADER_BYTES + idBytes.length + summaryBytes.length + 4L * (projects.size() + 1);
+        for (StoredProjectAllocation project : projects) {
+            byte[] bytes = project.toByteArray();
+            entries.add(bytes);
+            length += bytes.length;
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Allocation " + id + " is too large to store (" + length + " bytes)");
+        }
+
+        ByteBuffer record = ByteBuffer.allocate((int) length).order(ByteOrder.LITTLE_ENDIAN);
+        record.putInt(MAGIC).putInt((int) length).putLong(createdAt)
+                .putInt(projects.size()).putInt(idBytes.length).putInt(summaryBytes.length).putInt(0)
+                .put(idBytes).put(summaryBytes);
+        int offset = record.position() + 4 * (projects.size() + 1);
+        for (byte[] entry : entries) {
+            record.putInt(offset);
+            offset += entry.length;
+        }
+        record.putInt(offset);
+        entries.forEach(record::put);
+        record.putInt(28, checksum(record, (int) length));
+        return record.flip();
+    }
+
+    // Checks the magic, length and checksum of the record at the start of the buffer; -1 if it is not a whole record.
+    static int validLength(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (view.remaining() < HEADER_BYTES || view.getInt(view.position()) != MAGIC) {
+            return -1;
+        }
+        int length = view.getInt(view.position() + 4);
+        if (length < HEADER_BYTES || length > view.remaining()) {
+            return -1;
+        }
+        ByteBuffer record = view.slice(view.position(), length).order(ByteOrder.LITTLE_ENDIAN);
+        return record.getInt(28) == checksum(record, length) ? length : -1;
+    }
+
+    private static int checksum(ByteBuffer record, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(record.duplicate().position(HEADER_BYTES).limit(length));
+        return (int) crc.getValue();
+    }
+
+    public int length() {
+        return buffer.getInt(4);
+    }
+
+    public long createdAt() {
+        return buffer.getLong(8);
+    }
+
+    public int projectCount() {
+        return buffer.getInt(16);
+    }
+
+    public String id() {
+        byte[] id = new byte[buffer.getInt(20)];
+        buffer.get(HEADER_BYTES, id);
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    public AllocationResponse summary() throws InvalidProtocolBufferException {
+        int start = HEADER_BYTES + buffer.getInt(20);
+        return AllocationResponse.parseFrom(buffer.slice(start, buffer.getInt(24)));
+    }
+
+    public StoredProjectAllocation project(int index) throws InvalidProtocolBufferException {
+        int table = HEADER_BYTES + buffer.getInt(20) + buffer.getInt(24);
+        int start = buffer.getInt(table + 4 * index);
+        int end = buffer.getInt(table + 4 * (index + 1));
+        return StoredProjectAllocation.parseFrom(buffer.slice(start, end - start));
+    }
+}
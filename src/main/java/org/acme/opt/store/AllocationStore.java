@@ -0,0 +1,313 @@
+package org.acme.opt.store;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import resourceallocation.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Embedded, append-only store of the allocations the service computed, when {@code allocation.store.dir} is set.
+ * <p>
+ * Allocations are appended as {@link AllocationRecord}s to the active {@link Segment}, which is sealed with an index
+ * and replaced once it reaches {@code allocation.store.segment-bytes}. The in-memory index maps every allocation id to
+ * its record, so a lookup is one read of a mapped segment, and a page of projects only decodes those projects.
+ * <p>
+ * After every roll, compaction drops the allocations older than {@code allocation.store.retention-hours}: a sealed
+ * segment with nothing left is deleted, one with less than half of its bytes left has its remaining records copied to
+ * the active segment first.
+ */
+@ApplicationScoped
+public class AllocationStore {
+    private static final double COMPACT_BELOW_LIVE_RATIO = 0.5;
+
+    @ConfigProperty(name = "allocation.store.dir")
+    Optional<String> storeDir;
+
+    @ConfigProperty(name = "allocation.store.segment-bytes", defaultValue = "268435456")
+    long segmentBytes;
+
+    @ConfigProperty(name = "allocation.store.retention-hours", defaultValue = "168")
+    long retentionHours;
+
+    // Force every append to disk; otherwise only sealed segments are
+    @ConfigProperty(name = "allocation.store.fsync", defaultValue = "false")
+    boolean fsync;
+
+    private record Location(Segment segment, Segment.Entry entry) {
+    }
+
+    // Newest first
+    private record ListKey(long createdAt, String id) implements Comparable<ListKey> {
+        @Override
+        public int compareTo(ListKey other) {
+            int byTime = Long.compare(other.createdAt, createdAt);
+            return byTime != 0 ? byTime : id.compareTo(other.id);
+        }
+    }
+
+    private final Map<String, Location> byId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<ListKey, Location> byTime = new ConcurrentSkipListMap<>();
+    // Records of every segment, in file order; guarded by this
+    private final TreeMap<Long, List<Segment.Entry>> segmentEntries = new TreeMap<>();
+    private final Map<Long, Segment> segments = new HashMap<>();
+    private Path dir;
+    private Segment active;
+    private volatile boolean opened;
+    private Thread compaction;
+
+    public boolean isEnabled() {
+        return storeDir.isPresent();
+    }
+
+    /**
+     * Stores a complete response.
+     *
+     * @param allocations the project allocations of that response keyed by project id
+     */
+    public void put(AllocationResponse response, Map<String, ProjectAllocation> allocations) {
+        if (!isEnabled()) {
+            return;
+        }
+        Set<String> projectIds = new TreeSet<>(allocations.keySet());
+        projectIds.addAll(response.getProjectStatsMap().keySet());
+        List<StoredProjectAllocation> projects = new ArrayList<>(projectIds.size());
+        for (String projectId : projectIds) {
+            StoredProjectAllocation.Builder project = StoredProjectAllocation.newBuilder().setProjectId(projectId);
+            Optional.ofNullable(allocations.get(projectId)).ifPresent(project::setAllocation);
+            Optional.ofNullable(response.getProjectStatsMap().get(projectId)).ifPresent(project::setStats);
+            projects.add(project.build());
+        }
+        AllocationResponse summary = response.toBuilder().clearProjectAllocations().clearProjectStats().build();
+        ByteBuffer record = AllocationRecord.encode(response.getAllocationId(), System.currentTimeMillis(), summary, projects);
+        try {
+            append(response.getAllocationId(), record);
+        } catch (IOException e) {
+            System.err.println("Error storing allocation " + response.getAllocationId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * One page of a stored allocation, or empty when it is unknown or expired.
+     *
+     * @param pageToken index of the first project, as returned in the previous page; empty for the first page
+     */
+    public Optional<AllocationPage> get(String allocationId, int pageSize, String pageToken) {
+        open();
+        Location location = byId.get(allocationId);
+        if (location == null || expired(location.entry())) {
+            return Optional.empty();
+        }
+        int first = pageToken.isEmpty() ? 0 : Integer.parseInt(pageToken);
+        int total = location.entry().projectCount();
+        if (first < 0 || first > total) {
+            throw new IllegalArgumentException("Invalid page token " + pageToken);
+        }
+        int end = (int) Math.min(total, (long) first + (pageSize > 0 ? pageSize : 1000));
+        try {
+            AllocationRecord record = new AllocationRecord(
+                    location.segment().read(location.entry().offset(), location.entry().length()));
+            AllocationPage.Builder page = AllocationPage.newBuilder()
+                    .setAllocationId(allocationId)
+                    .setSummary(record.summary())
+                    .setTotalProjects(total)
+                    .setCreatedAt(record.createdAt())
+                    .setNextPageToken(end < total ? Integer.toString(end) : "");
+            for (int i = first; i < end; i++) {
+                page.addProjects(record.project(i));
+            }
+            return Optional.of(page.build());
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException("Corrupt stored allocation " + allocationId, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stored allocations, newest first. Statuses come from the stored summaries, so a page reads one record each.
+     *
+     * @param pageToken {@code createdAt:id} of the last allocation of the previous page; empty for the first page
+     */
+    public ListAllocationsResponse list(int pageSize, String pageToken) {
+        open();
+        NavigableMap<ListKey, Location> remaining = byTime;
+        if (!pageToken.isEmpty()) {
+            int separator = pageToken.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid page token " + pageToken);
+            }
+            remaining = byTime.tailMap(new ListKey(Long.parseLong(pageToken.substring(0, separator)),
+                    pageToken.substring(separator + 1)), false);
+        }
+        int limit = pageSize > 0 ? pageSize : 100;
+        ListAllocationsResponse.Builder response = ListAllocationsResponse.newBuilder();
+        ListKey last = null;
+        for (Map.Entry<ListKey, Location> entry : remaining.entrySet()) {
+            if (response.getAllocationsCount() == limit) {
+                response.setNextPageToken(last.createdAt() + ":" + last.id());
+                break;
+            }
+            Segment.Entry stored = entry.getValue().entry();
+            if (expired(stored)) {
+                continue;
+            }
+            AllocationSummary.Builder summary = AllocationSummary.newBuilder()
+                    .setAllocationId(stored.id())
+                    .setCreatedAt(stored.createdAt())
+                    .setTotalProjects(stored.projectCount());
+            try {
+                summary.setStatus(new AllocationRecord(entry.getValue().segment().read(stored.offset(), stored.length()))
+                        .summary().getStatus());
+            } catch (IOException e) {
+                System.err.println("Error reading stored allocation " + stored.id() + ": " + e.getMessage());
+            }
+            response.addAllocations(summary);
+            last = entry.getKey();
+        }
+        return response.build();
+    }
+
+    private synchronized void append(String id, ByteBuffer record) throws IOException {
+        open();
+        int length = record.remaining();
+        // Segments are read through int offsets
+        if (active.size() > 0 && active.size() + length > Math.min(segmentBytes, Integer.MAX_VALUE)) {
+            roll();
+        }
+        AllocationRecord header = new AllocationRecord(record.duplicate());
+        long offset = active.append(record);
+        if (fsync) {
+            active.force();
+        }
+        Segment.Entry entry = new Segment.Entry(id, offset, length, header.createdAt(), header.projectCount());
+        segmentEntries.get(active.id()).add(entry);
+        index(active, entry);
+    }
+
+    private void index(Segment segment, Segment.Entry entry) {
+        Location location = new Location(segment, entry);
+        byId.put(entry.id(), location);
+        byTime.put(new ListKey(entry.createdAt(), entry.id()), location);
+    }
+
+    private void unindex(Segment.Entry entry) {
+        byId.remove(entry.id());
+        byTime.remove(new ListKey(entry.createdAt(), entry.id()));
+    }
+
+    private boolean expired(Segment.Entry entry) {
+        return entry.createdAt() < System.currentTimeMillis() - retentionHours * 3_600_000;
+    }
+
+    // Sealed segments are loaded from their index; only the segment that was active is scanned
+    private void open() {
+        if (!opened && isEnabled()) {
+            load();
+        }
+    }
+
+    private synchronized void load() {
+        if (opened) {
+            return;
+        }
+        try {
+            dir = Files.createDirectories(Path.of(storeDir.get()));
+            List<Long> ids;
+            try (Stream<Path> files = Files.list(dir)) {
+                ids = files.map(f -> f.getFileName().toString())
+                        .filter(name -> name.startsWith("segment-") && name.endsWith(".log"))
+                        .map(name -> Long.parseLong(name.substring("segment-".length(), name.length() - ".log".length())))
+                        .sorted()
+                        .toList();
+            }
+            for (long id : ids) {
+                List<Segment.Entry> entries = new ArrayList<>();
+                Segment segment = Segment.open(dir, id, entries);
+                segments.put(id, segment);
+                segmentEntries.put(id, entries);
+                entries.forEach(entry -> index(segment, entry));
+                if (!segment.sealed()) {
+                    active = segment;
+                }
+            }
+            if (active == null) {
+                newActive();
+            }
+            System.out.printf("Allocation store %s: %d allocations in %d segments%n", dir, byId.size(), segments.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open allocation store " + storeDir.get(), e);
+        }
+        opened = true;
+    }
+
+    private void roll() throws IOException {
+        active.seal(segmentEntries.get(active.id()));
+        newActive();
+        if (compaction == null || !compaction.isAlive()) {
+            compaction = new Thread(this::compact, "allocation-store-compaction");
+            compaction.setDaemon(true);
+            compaction.start();
+        }
+    }
+
+    private void newActive() throws IOException {
+        long id = segmentEntries.isEmpty() ? 0 : segmentEntries.lastKey() + 1;
+        active = Segment.create(dir, id);
+        segments.put(id, active);
+        segmentEntries.put(id, new ArrayList<>());
+    }
+
+    private void compact() {
+        List<Long> sealed;
+        synchronized (this) {
+            sealed = segmentEntries.keySet().stream().filter(id -> id != active.id()).toList();
+        }
+        for (long id : sealed) {
+            try {
+                compact(id);
+            } catch (IOException e) {
+                System.err.println("Error compacting allocation store segment " + id + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void compact(long id) throws IOException {
+        Segment segment;
+        List<Segment.Entry> live;
+        synchronized (this) {
+            segment = segments.get(id);
+            List<Segment.Entry> entries = segmentEntries.get(id);
+            live = entries.stream().filter(entry -> !expired(entry)).toList();
+            long liveBytes = live.stream().mapToLong(Segment.Entry::length).sum();
+            if (!live.isEmpty() && liveBytes >= segment.size() * COMPACT_BELOW_LIVE_RATIO) {
+                return;
+            }
+            entries.stream().filter(this::expired).forEach(this::unindex);
+        }
+        // Copies one record at a time, so appends are never held up for long
+        for (Segment.Entry entry : live) {
+            ByteBuffer record = segment.read(entry.offset(), entry.length());
+            synchronized (this) {
+                if (byId.containsKey(entry.id()) && byId.get(entry.id()).segment() == segment) {
+                    append(entry.id(), record);
+                }
+            }
+        }
+        synchronized (this) {
+            segments.remove(id);
+            segmentEntries.remove(id);
+        }
+        segment.delete();
+        System.out.printf("Allocation store: compacted segment %d (%d allocations kept)%n", id, live.size());
+    }
+}
@@ -0,0 +1,179 @@
+package org.acme.opt.store;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One append-only segment file ({@code segment-N.log}) and, once sealed, its index ({@code segment-N.idx}) listing
+ * the records it holds, so that opening the store does not have to scan sealed segments.
+ * <p>
+ * Reads go through a read-only mapping of the file, remapped when a record lies past the mapped length (the active
+ * segment grows). A mapping stays valid after compaction deletes the file, so in-flight reads are unaffected.
+ */
+class Segment implements Closeable {
+
+    record Entry(String id, long offset, int length, long createdAt, int projectCount) {
+    }
+
+    private final long id;
+    private final Path file;
+    private final FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long size;
+    private boolean sealed;
+
+    private Segment(long id, Path file, FileChannel channel, long size, boolean sealed) {
+        this.id = id;
+        this.file = file;
+        this.channel = channel;
+        this.size = size;
+        this.sealed = sealed;
+    }
+
+    static Path logFile(Path dir, long id) {
+        return dir.resolve(String.format("segment-%016d.log", id));
+    }
+
+    static Path indexFile(Path dir, long id) {
+        return dir.resolve(String.format("segment-%016d.idx", id));
+    }
+
+    static Segment create(Path dir, long id) throws IOException {
+        Path file = logFile(dir, id);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(id, file, channel, 0, false);
+    }
+
+    /**
+     * Opens an existing segment and returns its records: from the index when the segment was sealed, otherwise by
+     * scanning it, in which case a torn record at the end (crash during an append) is truncated away.
+     */
+    static Segment open(Path dir, long id, List<Entry> entries) throws IOException {
+        Path file = logFile(dir, id);
+        Path index = indexFile(dir, id);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Segment segment = new Segment(id, file, channel, channel.size(), Files.exists(index));
+        if (segment.sealed) {
+            entries.addAll(readIndex(index));
+        } else {
+            segment.scan(entries);
+        }
+        return segment;
+    }
+
+    long id() {
+        return id;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    synchronized long size() {
+        return size;
+    }
+
+    synchronized boolean sealed() {
+        return sealed;
+    }
+
+    synchronized long append(ByteBuffer record) throws IOException {
+        long offset = size;
+        long position = offset;
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        size = position;
+        return offset;
+    }
+
+    synchronized ByteBuffer read(long offset, int length) throws IOException {
+        if (mapped == null || offset + length > mapped.capacity()) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        return mapped.slice((int) offset, length);
+    }
+
+    synchronized void force() throws IOException {
+        channel.force(false);
+    }
+
+    // Writes the index through a temporary file; the segment is never appended to again.
+    synchronized void seal(List<Entry> entries) throws IOException {
+        channel.force(true);
+        Path index = indexFile(file.getParent(), id);
+        Path tmp = index.resolveSibling(index.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                out.writeUTF(entry.id());
+                out.writeLong(entry.offset());
+                out.writeInt(entry.length());
+                out.writeLong(entry.createdAt());
+                out.writeInt(entry.projectCount());
+            }
+        }
+        Files.move(tmp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        sealed = true;
+    }
+
+    // Maps the whole file first, so that readers still holding this segment can finish
+    synchronized void delete() throws IOException {
+        if (size > 0 && (mapped == null || mapped.capacity() < size)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        close();
+        Files.deleteIfExists(indexFile(file.getParent(), id));
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void scan(List<Entry> entries) throws IOException {
+        long offset = 0;
+        if (size > 0) {
+            ByteBuffer all = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            while (offset < size) {
+                int length = AllocationRecord.validLength(all.slice((int) offset, (int) (size - offset)));
+                if (length < 0) {
+                    break;
+                }
+                AllocationRecord record = new AllocationRecord(all.slice((int) offset, length));
+                entries.add(new Entry(record.id(), offset, length, record.createdAt(), record.projectCount()));
+                offset += length;
+            }
+        }
+        if (offset < size) {
+            System.err.printf("Truncating %d bytes of incomplete allocation records at the end of %s%n", size - offset, file);
+            channel.truncate(offset);
+            size = offset;
+        }
+    }
+
+    private static List<Entry> readIndex(Path index) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+            int count = in.readInt();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(new Entry(in.readUTF(), in.readLong(), in.readInt(), in.readLong(), in.readInt()));
+            }
+            return entries;
+        }
+    }
+}
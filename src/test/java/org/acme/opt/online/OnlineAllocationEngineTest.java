@@ -0,0 +1,112 @@
+package org.acme.opt.online;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.SolverStrategy;
+import org.acme.opt.models.enums.GreedyOrder;
+import org.acme.opt.models.enums.GreedyStrategy;
+import org.acme.opt.solvers.GreedyAssignmentSolver;
+import org.junit.jupiter.api.Test;
+import resourceallocation.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// After every event of a random replay, the engine's allocation must be the greedy's from scratch on the projects and
+// capacities live at that point: arrival order, or priority then arrival with allocation.online.priority-first.
+class OnlineAllocationEngineTest {
+    private static final int REPLAYS = 200;
+    private static final int EVENTS = 150;
+
+    @Test
+    void replayMatchesGreedyInArrivalOrder() {
+        replay(false, new SolverStrategy(GreedyStrategy.CREATION_DATE, GreedyOrder.SMALLEST_FIRST));
+    }
+
+    @Test
+    void replayMatchesGreedyInPriorityOrder() {
+        replay(true, new SolverStrategy(GreedyStrategy.ASSOCIATION_ACTIVITY, GreedyOrder.LARGEST_FIRST));
+    }
+
+    private static void replay(boolean priorityFirst, SolverStrategy strategy) {
+        for (int seed = 0; seed < REPLAYS; seed++) {
+            Random random = new Random(seed);
+            OnlineAllocationEngine engine = new OnlineAllocationEngine();
+            engine.priorityFirst = priorityFirst;
+            Map<String, Integer> capacities = new TreeMap<>();
+            // Live projects in arrival order
+            Map<String, SolverProject> live = new LinkedHashMap<>();
+            // What the updates reported so far, per project and resource
+            Map<String, Map<String, Integer>> reported = new TreeMap<>();
+
+            for (int step = 0; step < EVENTS; step++) {
+                AllocationEvent.Builder event = AllocationEvent.newBuilder().setEventId(seed + "-" + step);
+                int kind = random.nextInt(10);
+                if (kind < 5 || live.isEmpty()) {
+                    Map<String, Integer> requirements = new HashMap<>();
+                    for (int k = random.nextInt(3); k >= 0; k--) {
+                        requirements.put("r" + random.nextInt(6), random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(12));
+                    }
+                    String id = "p" + step;
+                    int priority = random.nextInt(3);
+                    live.put(id, new SolverProject("", id, id, requirements, priority));
+                    event.setProjectAdded(Project.newBuilder().setId(id).setName(id)
+                            .putAllRequirements(requirements).setPriority(priority));
+                } else if (kind < 8) {
+                    List<String> ids = new ArrayList<>(live.keySet());
+                    String id = ids.get(random.nextInt(ids.size()));
+                    live.remove(id);
+                    event.setProjectRemoved(id);
+                } else {
+                    String id = "r" + random.nextInt(6);
+                    int capacity = random.nextInt(30);
+                    capacities.put(id, capacity);
+                    event.setResourceUpserted(Resource.newBuilder().setId(id).setName(id).setCapacity(capacity));
+                }
+
+                AllocationUpdate update = engine.apply(event.build());
+                assertEquals("", update.getError(), "seed " + seed + ", step " + step);
+                for (ProjectAllocationChange change : update.getChangesList()) {
+                    if (change.getRemoved()) {
+                        reported.remove(change.getProjectId());
+                    } else {
+                        reported.computeIfAbsent(change.getProjectId(), id -> new TreeMap<>()).putAll(change.getAllocatedMap());
+                    }
+                }
+
+                List<SolverResource> resources = new ArrayList<>();
+                capacities.forEach((id, capacity) -> resources.add(new SolverResource(id, id, capacity, 0)));
+                Map<SolverProject, List<SolverResource>> greedy =
+                        new GreedyAssignmentSolver(resources, List.copyOf(live.values()), strategy).solve();
+                assertEquals(expected(greedy), withoutZeros(reported), "seed " + seed + ", step " + step);
+            }
+
+            AllocationUpdate snapshot = engine.apply(AllocationEvent.newBuilder().setEventId("snapshot").setSnapshot(true).build());
+            Map<String, Map<String, Integer>> state = new TreeMap<>();
+            snapshot.getChangesList().forEach(change -> state.put(change.getProjectId(), change.getAllocatedMap()));
+            assertEquals(withoutZeros(reported), withoutZeros(state), "seed " + seed + ", snapshot");
+        }
+    }
+
+    private static Map<String, Map<String, Integer>> expected(Map<SolverProject, List<SolverResource>> greedy) {
+        Map<String, Map<String, Integer>> allocations = new TreeMap<>();
+        greedy.forEach((project, assigned) -> {
+            Map<String, Integer> amounts = new TreeMap<>();
+            assigned.forEach(resource -> amounts.put(resource.getId(), resource.getAvailableCapacity()));
+            allocations.put(project.getId(), amounts);
+        });
+        return withoutZeros(allocations);
+    }
+
+    // A zero amount and no amount are the same allocation
+    private static Map<String, Map<String, Integer>> withoutZeros(Map<String, Map<String, Integer>> allocations) {
+        Map<String, Map<String, Integer>> nonZero = new TreeMap<>();
+        allocations.forEach((project, amounts) -> amounts.forEach((resource, amount) -> {
+            if (amount != 0) {
+                nonZero.computeIfAbsent(project, id -> new TreeMap<>()).put(resource, amount);
+            }
+        }));
+        return nonZero;
+    }
+}
@@ -0,0 +1,110 @@
+package org.acme.opt.solvers;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.models.SolverStrategy;
+import org.acme.opt.models.enums.GreedyOrder;
+import org.acme.opt.models.enums.GreedyStrategy;
+import org.acme.opt.presolve.PresolvingSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The parallel and the presolved greedy claim the sequential greedy's result; checked on random problems with the
+// cases they special-case: duplicate resource ids, unknown and zero requirements, exhausted resources, identical projects.
+class GreedyEquivalenceTest {
+    private static final int CASES = 150;
+    // Every LARGE_EVERY-th case spans several blocks of the parallel greedy
+    private static final int LARGE_EVERY = 25;
+
+    private static final List<SolverStrategy> STRATEGIES = List.of(
+            new SolverStrategy(GreedyStrategy.PROJECT_SIZE, GreedyOrder.SMALLEST_FIRST),
+            new SolverStrategy(GreedyStrategy.PROJECT_SIZE, GreedyOrder.LARGEST_FIRST),
+            new SolverStrategy(GreedyStrategy.ASSOCIATION_ACTIVITY, GreedyOrder.LARGEST_FIRST),
+            new SolverStrategy(GreedyStrategy.CREATION_DATE, GreedyOrder.SMALLEST_FIRST));
+
+    @Test
+    void parallelGreedyMatchesSequentialGreedy() {
+        for (int seed = 0; seed < CASES; seed++) {
+            Random random = new Random(seed);
+            List<SolverResource> resources = randomResources(random);
+            List<SolverProject> projects = randomProjects(random, seed % LARGE_EVERY == 0 ? 12_000 : 60);
+            for (SolverStrategy strategy : STRATEGIES) {
+                // Exact, including the empty entry of the project that finds a resource exhausted
+                assertEquals(allocations(new GreedyAssignmentSolver(resources, projects, strategy).solve(), true),
+                        allocations(new ParallelGreedySolver(resources, projects, strategy).solve(), true),
+                        "seed " + seed + ", " + strategy);
+            }
+        }
+    }
+
+    @Test
+    void presolvedGreedyMatchesPlainGreedy() {
+        for (int seed = 0; seed < CASES; seed++) {
+            Random random = new Random(seed);
+            List<SolverResource> resources = randomResources(random);
+            List<SolverProject> projects = randomProjects(random, seed % LARGE_EVERY == 0 ? 12_000 : 60);
+            for (SolverStrategy strategy : STRATEGIES) {
+                Map<String, Map<String, Integer>> expected =
+                        allocations(new GreedyAssignmentSolver(resources, projects, strategy).solve(), false);
+                for (boolean parallel : new boolean[]{false, true}) {
+                    assertEquals(expected,
+                            allocations(PresolvingSolver.greedy(resources, projects, strategy, parallel).solve(), false),
+                            "seed " + seed + ", " + strategy + ", parallel=" + parallel);
+                }
+            }
+        }
+    }
+
+    static List<SolverResource> randomResources(Random random) {
+        int count = 1 + random.nextInt(8);
+        List<SolverResource> resources = new ArrayList<>();
+        for (int r = 0; r < count; r++) {
+            resources.add(new SolverResource("r" + r, "Resource " + r, random.nextInt(4) == 0 ? 0 : random.nextInt(200), 1));
+        }
+        // A resource listed twice has the sum of both capacities
+        if (random.nextInt(4) == 0) {
+            resources.add(new SolverResource("r0", "Resource 0 again", random.nextInt(50), 1));
+        }
+        return resources;
+    }
+
+    static List<SolverProject> randomProjects(Random random, int maxCount) {
+        int count = 1 + random.nextInt(maxCount);
+        List<SolverProject> projects = new ArrayList<>();
+        for (int p = 0; p < count; p++) {
+            if (!projects.isEmpty() && random.nextInt(4) == 0) {
+                // Identical to an earlier project, sometimes the one just before
+                SolverProject twin = projects.get(random.nextBoolean() ? projects.size() - 1 : random.nextInt(projects.size()));
+                projects.add(new SolverProject("", "p" + p, "Project " + p, twin.getRequirements(), twin.getPriority()));
+                continue;
+            }
+            Map<String, Integer> requirements = new HashMap<>();
+            for (int k = random.nextInt(4); k >= 0; k--) {
+                // r8 is never announced
+                requirements.put("r" + random.nextInt(9), random.nextInt(6) == 0 ? 0 : 1 + random.nextInt(40));
+            }
+            projects.add(new SolverProject("", "p" + p, "Project " + p, requirements, random.nextInt(3)));
+        }
+        return projects;
+    }
+
+    // Project id -> resource id -> amount; without zeros, a project that got nothing is absent
+    static Map<String, Map<String, Integer>> allocations(Map<SolverProject, List<SolverResource>> result, boolean keepZeros) {
+        Map<String, Map<String, Integer>> allocations = new TreeMap<>();
+        result.forEach((project, assigned) -> {
+            Map<String, Integer> amounts = new TreeMap<>();
+            for (SolverResource resource : assigned) {
+                if (keepZeros || resource.getAvailableCapacity() != 0) {
+                    amounts.merge(resource.getId(), resource.getAvailableCapacity(), Integer::sum);
+                }
+            }
+            if (keepZeros || !amounts.isEmpty()) {
+                allocations.put(project.getId(), amounts);
+            }
+        });
+        return allocations;
+    }
+}
@@ -0,0 +1,56 @@
+package org.acme.opt.solvers;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The sensitivity is derived without solving the LP again, so it is checked against GLOP by brute force: one more unit
+// of any resource, including one the request never announced, must raise the LP optimum by exactly its shadow price.
+class LpSensitivityTest {
+    private static final int CASES = 100;
+    private static final double TOLERANCE = 1e-6;
+
+    @Test
+    void objectiveMatchesLp() {
+        for (int seed = 0; seed < CASES; seed++) {
+            Random random = new Random(seed);
+            List<SolverResource> resources = GreedyEquivalenceTest.randomResources(random);
+            List<SolverProject> projects = GreedyEquivalenceTest.randomProjects(random, 30);
+            assertEquals(objective(new MaximizeResourceUsage(resources, projects).solve()),
+                    LpSensitivity.analyze(resources, projects).objective(), TOLERANCE, "seed " + seed);
+        }
+    }
+
+    @Test
+    void shadowPriceIsObjectiveGainOfOneMoreUnit() {
+        for (int seed = 0; seed < CASES; seed++) {
+            Random random = new Random(seed);
+            List<SolverResource> resources = GreedyEquivalenceTest.randomResources(random);
+            List<SolverProject> projects = GreedyEquivalenceTest.randomProjects(random, 30);
+            double base = objective(new MaximizeResourceUsage(resources, projects).solve());
+
+            for (LpSensitivity.ResourceSensitivity sensitivity : LpSensitivity.analyze(resources, projects).resources()) {
+                // A resource listed twice has the sum of both capacities, so the extra unit can be listed on its own
+                List<SolverResource> bumped = new ArrayList<>(resources);
+                bumped.add(new SolverResource(sensitivity.resourceId(), sensitivity.resourceId(), 1, sensitivity.cost()));
+                double gain = objective(new MaximizeResourceUsage(bumped, projects).solve()) - base;
+                assertEquals(sensitivity.shadowPrice(), gain, TOLERANCE, "seed " + seed + ", " + sensitivity.resourceId());
+            }
+        }
+    }
+
+    // Weighted usage, the LP objective
+    static double objective(Map<SolverProject, List<SolverResource>> result) {
+        double objective = 0;
+        for (Map.Entry<SolverProject, List<SolverResource>> entry : result.entrySet()) {
+            for (SolverResource resource : entry.getValue()) {
+                objective += LpSensitivity.weight(entry.getKey()) * resource.getAvailableCapacity();
+            }
+        }
+        return objective;
+    }
+}
@@ -0,0 +1,74 @@
+package org.acme.opt.solvers;
+
+import org.acme.opt.models.SolverProject;
+import org.acme.opt.models.SolverResource;
+import org.acme.opt.presolve.PresolvingSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Presolve and the symmetry reduction must not change the LP optimum: the presolved LP and the presolved lexicographic
+// solve are checked against the plain solvers on random problems, identical projects included, and their disaggregated
+// allocation must still fit every capacity and requirement.
+class PresolvedLpEquivalenceTest {
+    private static final int CASES = 100;
+    private static final double TOLERANCE = 1e-6;
+
+    @Test
+    void presolvedLpMatchesPlainLp() {
+        for (int seed = 0; seed < CASES; seed++) {
+            Random random = new Random(seed);
+            List<SolverResource> resources = GreedyEquivalenceTest.randomResources(random);
+            List<SolverProject> projects = GreedyEquivalenceTest.randomProjects(random, 60);
+            Map<SolverProject, List<SolverResource>> presolved = PresolvingSolver.linearProgramming(resources, projects).solve();
+            assertFeasible(resources, projects, presolved, "seed " + seed);
+            assertEquals(LpSensitivityTest.objective(new MaximizeResourceUsage(resources, projects).solve()),
+                    LpSensitivityTest.objective(presolved), TOLERANCE, "seed " + seed);
+        }
+    }
+
+    @Test
+    void presolvedLexicographicMatchesPlainLexicographic() {
+        for (int seed = 0; seed < CASES; seed++) {
+            Random random = new Random(seed);
+            List<SolverResource> resources = GreedyEquivalenceTest.randomResources(random);
+            List<SolverProject> projects = GreedyEquivalenceTest.randomProjects(random, 60);
+            Map<SolverProject, List<SolverResource>> presolved = PresolvingSolver.lexicographic(resources, projects).solve();
+            assertFeasible(resources, projects, presolved, "seed " + seed);
+            // The units of each tier are what the strict priorities fix; how a tier splits them may differ
+            assertEquals(unitsPerTier(new LexicographicSolver(resources, projects).solve()), unitsPerTier(presolved),
+                    "seed " + seed);
+        }
+    }
+
+    private static Map<Integer, Long> unitsPerTier(Map<SolverProject, List<SolverResource>> result) {
+        Map<Integer, Long> units = new TreeMap<>();
+        result.forEach((project, assigned) -> assigned.forEach(resource ->
+                units.merge(Math.max(0, project.getPriority()), (long) resource.getAvailableCapacity(), Long::sum)));
+        units.values().removeIf(amount -> amount == 0);
+        return units;
+    }
+
+    private static void assertFeasible(List<SolverResource> resources, List<SolverProject> projects,
+                                       Map<SolverProject, List<SolverResource>> result, String message) {
+        Map<String, Long> remaining = new HashMap<>();
+        resources.forEach(resource -> remaining.merge(resource.getId(), (long) resource.getAvailableCapacity(), Long::sum));
+        Set<SolverProject> known = Collections.newSetFromMap(new IdentityHashMap<>());
+        known.addAll(projects);
+        result.forEach((project, assigned) -> {
+            assertTrue(known.contains(project), message + ": " + project.getId() + " is not a request project");
+            Map<String, Integer> received = new HashMap<>();
+            assigned.forEach(resource -> received.merge(resource.getId(), resource.getAvailableCapacity(), Integer::sum));
+            received.forEach((resourceId, amount) -> {
+                assertTrue(amount >= 0 && amount <= project.getRequirements().getOrDefault(resourceId, 0),
+                        message + ": " + project.getId() + " got " + amount + " of " + resourceId);
+                remaining.merge(resourceId, (long) -amount, Long::sum);
+            });
+        });
+        remaining.forEach((resourceId, left) ->
+                assertTrue(left >= 0, message + ": " + resourceId + " overallocated by " + -left));
+    }
+}